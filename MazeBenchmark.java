@@ -0,0 +1,181 @@
+import java.util.*;
+
+import maze.*;
+import mazeGenerator.*;
+import mazeSolver.*;
+
+
+/**
+ * Benchmark of the wall storages of the maze: Cell objects, row-major bits and tiled bits.
+ *
+ * @author Zaid & Swapnil
+ *
+ * The generators are run on a smaller maze, carving through the MazeGraph or the int API into each storage.
+ * RecursiveBacktrackerGenerator, the union-find perfectness check and WallFollowerSolver, which work
+ * through the int API, are then run on a large maze, where the layout of the wall bits decides the cache misses.
+ * Every measure is the best of REPEATS runs, in milliseconds.
+ */
+class MazeBenchmark {
+
+	/**
+	 * number of runs of each measure
+	 */
+	protected static final int REPEATS = 3;
+
+	/**
+	 * storages compared, and their names
+	 */
+	protected static final int storages[] = { Maze.STORE_CELLS, Maze.STORE_PACKED, Maze.STORE_TILED, Maze.STORE_MORTON };
+	protected static final String storageNames[] = { "cells", "packed", "tiled", "morton" };
+
+	/**
+	 * Print help/usage message.
+	 */
+	public static void usage() {
+		System.err.println("MazeBenchmark: [genRows genCols [walkRows walkCols]]");
+		System.exit(1);
+	} // end of usage()
+
+
+	/**
+	 * Main function of the benchmark.
+	 * @param args Size of the maze for the generators, then of the maze for the int API walks.
+	 */
+	public static void main(String[] args) {
+		int genR = 100, genC = 100;
+		int walkR = 4000, walkC = 4000;
+		try {
+			if (args.length >= 2) {
+				genR = Integer.parseInt(args[0]);
+				genC = Integer.parseInt(args[1]);
+			}
+			if (args.length >= 4) {
+				walkR = Integer.parseInt(args[2]);
+				walkC = Integer.parseInt(args[3]);
+			}
+		} catch (NumberFormatException e) {
+			usage();
+		}
+		if (args.length % 2 != 0 || args.length > 4 || genR < 2 || genC < 2 || walkR < 2 || walkC < 2)
+			usage();
+
+		System.out.println("Generators on a " + genR + " x " + genC + " normal maze:");
+		System.out.printf("%-32s", "");
+		for (String name : storageNames)
+			System.out.printf("%10s", name);
+		System.out.println();
+		String genNames[] = { "modiPrim", "recurBack", "growingTree", "kruskal", "eller", "wilson", "wilsonHybrid", "parallelTiled",
+				"binaryTree", "sidewinder" };
+		for (String genName : genNames) {
+			System.out.printf("%-32s", genName + " + isPerfect()");
+			for (int storage : storages) {
+				long best = Long.MAX_VALUE;
+				for (int i = 0; i < REPEATS; i++) {
+					Maze maze = newMaze(Maze.NORMAL, storage, genR, genC);
+					MazeGenerator gen = newGenerator(genName);
+					long start = System.nanoTime();
+					gen.generateMaze(maze);
+					if (!maze.isPerfect())
+						System.err.println(genName + " generated a maze which is not perfect.");
+					best = Math.min(best, System.nanoTime() - start);
+				}
+				System.out.printf("%10d", best / 1000000);
+			}
+			System.out.println();
+		}
+
+		int types[] = { Maze.NORMAL, Maze.HEX };
+		String typeNames[] = { "normal", "hex" };
+		for (int t = 0; t < types.length; t++) {
+			System.out.println();
+			System.out.println("Int API on a " + walkR + " x " + walkC + " " + typeNames[t] + " maze:");
+			System.out.printf("%-32s", "");
+			for (int s = 1; s < storages.length; s++)
+				System.out.printf("%10s", storageNames[s]);
+			System.out.println();
+			long backtrack[] = new long[storages.length];
+			long perfect[] = new long[storages.length];
+			long follow[] = new long[storages.length];
+			Arrays.fill(backtrack, Long.MAX_VALUE);
+			Arrays.fill(perfect, Long.MAX_VALUE);
+			Arrays.fill(follow, Long.MAX_VALUE);
+			for (int i = 0; i < REPEATS; i++) {
+				// the cell storage has no int-API fast path, it is left out
+				for (int s = 1; s < storages.length; s++) {
+					Maze maze = newMaze(types[t], storages[s], walkR, walkC);
+					MazeGenerator gen = new RecursiveBacktrackerGenerator();
+					// same seed for every storage, so that they carve the same maze
+					gen.setSeed(i);
+					long start = System.nanoTime();
+					gen.generateMaze(maze);
+					backtrack[s] = Math.min(backtrack[s], System.nanoTime() - start);
+
+					start = System.nanoTime();
+					if (!maze.isPerfect())
+						System.err.println("recurBack generated a maze which is not perfect.");
+					perfect[s] = Math.min(perfect[s], System.nanoTime() - start);
+
+					MazeSolver solver = new WallFollowerSolver();
+					start = System.nanoTime();
+					solver.solveMaze(maze);
+					follow[s] = Math.min(follow[s], System.nanoTime() - start);
+					if (!solver.isSolved())
+						System.err.println("The wall follower did not reach the exit.");
+				}
+			}
+			printRow("recurBack", backtrack);
+			printRow("isPerfect()", perfect);
+			printRow("wall follower", follow);
+		}
+	} // end of main()
+
+
+	/**
+	 * Print the times of the bit storages, in milliseconds.
+	 */
+	protected static void printRow(String name, long times[]) {
+		System.out.printf("%-32s", name);
+		for (int s = 1; s < times.length; s++)
+			System.out.printf("%10d", times[s] / 1000000);
+		System.out.println();
+	} // end of printRow()
+
+
+	/**
+	 * @return An all-wall maze with the entrance at the south-west corner and the exit at the north-east corner.
+	 */
+	protected static Maze newMaze(int type, int storage, int rows, int cols) {
+		Maze maze = type == Maze.HEX ? new HexMaze() : new NormalMaze();
+		maze.storage = storage;
+		maze.isVisu = false;
+		maze.initMaze(rows, cols, 0, 0, rows - 1, cols - 1, new ArrayList<int[]>());
+		return maze;
+	} // end of newMaze()
+
+
+	protected static MazeGenerator newGenerator(String name) {
+		switch (name) {
+		case "modiPrim":
+			return new ModifiedPrimsGenerator();
+		case "recurBack":
+			return new RecursiveBacktrackerGenerator();
+		case "kruskal":
+			return new KruskalGenerator();
+		case "eller":
+			return new EllerGenerator();
+		case "wilson":
+			return new WilsonGenerator();
+		case "wilsonHybrid":
+			return new WilsonGenerator(true, 1.0 / 3);
+		case "parallelTiled":
+			return new ParallelTiledGenerator();
+		case "binaryTree":
+			return new BinaryTreeGenerator();
+		case "sidewinder":
+			return new SidewinderGenerator();
+		default:
+			return new GrowingTreeGenerator();
+		}
+	} // end of newGenerator()
+
+} // end of class MazeBenchmark
@@ -72,6 +72,11 @@ class MazeTester {
 		int entC = 0;
 		int exitR = 0;
 		int exitC = 1;
+		int storage = Maze.STORE_CELLS;
+		boolean isIncremental = false;
+		boolean isParallelCheck = false;
+		boolean isSeeded = false;
+		long seed = 0;
 		List<int[]> tunnelList = new ArrayList<int[]>();
 		
 		File fin = new File(fName);
@@ -92,9 +97,70 @@ class MazeTester {
 			exitR = Integer.parseInt(scanner.next());
 			exitC = Integer.parseInt(scanner.next());
 
-			// add tunnels
+			// add tunnels and options
 			while (scanner.hasNext()) {
-				int temp[]= {Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next())};
+				String token = scanner.next();
+				// "storage packed" keeps the walls of the maze in bits
+				if (token.equals("storage")) {
+					switch (scanner.next()) {
+					case "cells":
+						storage = Maze.STORE_CELLS;
+						break;
+					case "packed":
+						storage = Maze.STORE_PACKED;
+						break;
+					case "mapped":
+						storage = Maze.STORE_MAPPED;
+						break;
+					case "tiled":
+						storage = Maze.STORE_TILED;
+						break;
+					case "morton":
+						storage = Maze.STORE_MORTON;
+						break;
+					default:
+						System.err.println("Unknown maze storage.");
+						usage(progName);
+					}
+					continue;
+				}
+				// "validation incremental" validates footprints as they are drawn
+				if (token.equals("validation")) {
+					switch (scanner.next()) {
+					case "full":
+						isIncremental = false;
+						break;
+					case "incremental":
+						isIncremental = true;
+						break;
+					default:
+						System.err.println("Unknown validation.");
+						usage(progName);
+					}
+					continue;
+				}
+				// "perfectness parallel" checks the maze on row bands in parallel
+				if (token.equals("perfectness")) {
+					switch (scanner.next()) {
+					case "serial":
+						isParallelCheck = false;
+						break;
+					case "parallel":
+						isParallelCheck = true;
+						break;
+					default:
+						System.err.println("Unknown perfectness check.");
+						usage(progName);
+					}
+					continue;
+				}
+				// "seed N" makes the generation repeatable
+				if (token.equals("seed")) {
+					isSeeded = true;
+					seed = Long.parseLong(scanner.next());
+					continue;
+				}
+				int temp[]= {Integer.parseInt(token), Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next())};
 				tunnelList.add(temp);
 			}
 			scanner.close();
@@ -129,6 +195,18 @@ class MazeTester {
 		}
 		
 		// initialise maze
+		maze.storage = storage;
+		maze.isIncremental = isIncremental;
+		// only the long checker indexes the cells of mazes above 2^31 - 1 cells
+		if ((long) rowNum * colNum > Integer.MAX_VALUE) {
+			if (isParallelCheck) {
+				System.err.println("Parallel perfectness check is limited to 2^31 - 1 cells.");
+				usage(progName);
+			}
+			maze.perfectness = new LongPerfectnessChecker();
+		}
+		else if (isParallelCheck)
+			maze.perfectness = new ParallelPerfectnessChecker();
 		maze.initMaze(rowNum, colNum, entR, entC, exitR, exitC, tunnelList);
 
 		// check if maze entrance or exit is valid
@@ -149,11 +227,34 @@ class MazeTester {
 		case "growingTree":
 			mazeGen = new GrowingTreeGenerator();
 			break;
+		case "kruskal":
+			mazeGen = new KruskalGenerator();
+			break;
+		case "eller":
+			mazeGen = new EllerGenerator();
+			break;
+		case "wilson":
+			mazeGen = new WilsonGenerator();
+			break;
+		case "wilsonHybrid":
+			mazeGen = new WilsonGenerator(true, 1.0 / 3);
+			break;
+		case "parallelTiled":
+			mazeGen = new ParallelTiledGenerator();
+			break;
+		case "binaryTree":
+			mazeGen = new BinaryTreeGenerator();
+			break;
+		case "sidewinder":
+			mazeGen = new SidewinderGenerator();
+			break;
 		default:
 			System.err.println("Unknown maze generator name.");
 			usage(progName);
 		}
 
+		if (isSeeded)
+			mazeGen.setSeed(seed);
 		outStream.println(mazeGen.getClass().getSimpleName() + " is generating the maze.");
 
 		// generate maze
@@ -166,6 +267,23 @@ class MazeTester {
 		boolean isPerfectMaze = maze.isPerfect();
 		
 		outStream.println("The maze is " + (isPerfectMaze ? "" : "not ") + "perfect!");
+		if (!isPerfectMaze)
+			outStream.println(maze.perfectness.report());
+
+		// a mapped maze is saved in its file, check that it reads back the same
+		if (storage == Maze.STORE_MAPPED) {
+			MappedWallStore store = (MappedWallStore) maze.walls;
+			store.force();
+			try {
+				Maze saved = NormalMaze.openMapped(store.file, true);
+				boolean isSame = saved.type == maze.type && saved.sizeR == maze.sizeR && saved.sizeC == maze.sizeC
+						&& saved.sizeTunnel == maze.sizeTunnel && saved.walls.cardinality() == store.cardinality();
+				((MappedWallStore) saved.walls).close();
+				outStream.println("The maze reopened from its file is " + (isSame ? "" : "not ") + "the same!");
+			} catch (IOException e) {
+				System.err.println("Cannot reopen the maze file: " + e.getMessage());
+			}
+		}
 		
 		// draw maze (this depends on maze.isVisu)
 		maze.draw();
@@ -177,9 +295,24 @@ class MazeTester {
 			case "wallFollower":
 				mazeSolver = new WallFollowerSolver();
 				break;
+			case "wallFollowerRight":
+				mazeSolver = new WallFollowerSolver(WallFollowerSolver.RIGHT);
+				break;
 			case "biDirrecurBack":
 				mazeSolver = new BiDirectionalRecursiveBacktrackerSolver();
 				break;
+			case "parallelBiDir":
+				mazeSolver = new ParallelBiDirectionalSolver();
+				break;
+			case "bfs":
+				mazeSolver = new BreadthFirstSolver();
+				break;
+			case "bfsFreeTunnels":
+				mazeSolver = new BreadthFirstSolver(true);
+				break;
+			case "aStar":
+				mazeSolver = new AStarSolver();
+				break;
             // sample solver to help you get started
             case "sample":
                 mazeSolver = new SampleSolver();
@@ -193,13 +326,16 @@ class MazeTester {
 			}
 
 			if (mazeSolver != null) {
+				// the sample solver works on the Cell objects of the maze
+				if (mazeSolver instanceof SampleSolver)
+					maze.cellView();
 				mazeSolver.solveMaze(maze);
 				outStream.println(mazeSolver.getClass().getSimpleName() + " is solving the maze.");
 				// check if solver can get out of maze
 				if (mazeSolver.isSolved()) {
 					outStream.println("The maze has been solved!");
 					// display number of cells visited for solver
-					outStream.println("Number of cells visited = " + mazeSolver.cellsExplored());
+					outStream.println("Number of cells visited = " + mazeSolver.cellsExploredLong());
 					// show results from validation
 					outStream.println("Validation result:");
 					boolean isValid = maze.validate();
@@ -0,0 +1,309 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Sparse record of the cells drawn by drawFtPrt(), validating the solution as footprints come in.
+ *
+ * @author Zaid & Swapnil
+ *
+ * Each recorded cell is marked reached once it is connected to the entrance through recorded cells.
+ * When a footprint is adjacent to a reached cell through an open wall or a tunnel, a breadth first search
+ * marks it and the recorded cells it connects, each cell being settled once: keeping the verdict of validate()
+ * up to date takes time and memory proportional to the number of cells visited, not to the size of the maze.
+ * The length of the solution is the shortest path through recorded cells, found by one more search in validate().
+ * A slot of the hash table belongs to the current solution only if its stamp is the current generation,
+ * so clear() does not have to touch the table.
+ */
+public class FootprintRecord {
+	/**
+	 * open addressing hash table of the recorded cells, keys[i] is cell index + 1
+	 */
+	protected long keys[] = new long[16];
+
+	/**
+	 * state[i] is 2 * generation if the cell in keys[i] is recorded, plus 1 once it is reached,
+	 * and anything smaller for an empty slot
+	 */
+	protected int state[] = new int[16];
+
+	/**
+	 * searched[i] is the current search if steps[i] is the step count of the cell in keys[i] from the entrance
+	 */
+	protected int searched[] = new int[16];
+	protected int steps[] = new int[16];
+
+	/**
+	 * generation of the current solution, and number of the last search of validate()
+	 */
+	protected int generation = 0;
+	protected int search = 0;
+
+	/**
+	 * number of recorded cells, and number of them reached from the entrance
+	 */
+	protected int numRecorded = 0;
+	protected int numReached = 0;
+
+	/**
+	 * cells of the current breadth first search
+	 */
+	protected long queue[] = new long[16];
+
+	protected Maze maze;
+
+	/**
+	 * index of the entrance cell, -1 if none
+	 */
+	protected long entrance;
+
+
+	/**
+	 * construct an empty record, with the entrance reached
+	 * @param maze The maze of the footprints.
+	 * @param entrance Index of the entrance cell, -1 if none.
+	 */
+	public FootprintRecord(Maze maze, long entrance) {
+		this.maze = maze;
+		clear(entrance);
+	} // end of FootprintRecord()
+
+
+	/**
+	 * Forget every footprint, keeping the hash table for the next solution.
+	 * @param entrance Index of the entrance cell, -1 if none.
+	 */
+	public void clear(long entrance) {
+		// the stamps are only cleared when the generations run out
+		if (++generation == Integer.MAX_VALUE / 2) {
+			Arrays.fill(state, 0);
+			generation = 1;
+		}
+		this.entrance = entrance;
+		numRecorded = 0;
+		numReached = 0;
+		// nothing else is recorded yet, and the walls may not be built, so the entrance is reached alone
+		if (entrance >= 0) {
+			add(slot(entrance), entrance);
+			state[slot(entrance)] |= 1;
+			numReached++;
+		}
+	} // end of clear()
+
+
+	/**
+	 * Record a footprint.
+	 * @param cell Index of the cell drawn.
+	 */
+	public void record(long cell) {
+		int i = slot(cell);
+		if (isRecorded(i))
+			return;
+		add(i, cell);
+
+		// reached if any recorded neighbor is
+		for (int dir = -1; dir < Maze.NUM_DIR; dir++) {
+			long next = next(cell, dir);
+			if (next >= 0 && isReached(slot(next))) {
+				reach(cell);
+				return;
+			}
+		}
+	} // end of record()
+
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return True if the cell is recorded and connected to the entrance through recorded cells.
+	 */
+	public boolean isReached(long cell) {
+		return isReached(slot(cell));
+	} // end of isReached()
+
+
+	/**
+	 * @return Number of recorded cells reached from the entrance, entrance included.
+	 */
+	public int numReached() {
+		return numReached;
+	} // end of numReached()
+
+
+	/**
+	 * Show validation result of the footprints, same as Maze.validate().
+	 * @param exit Index of the exit cell.
+	 * @return True if the exit is reached and every recorded cell is reachable from the entrance.
+	 */
+	public boolean validate(long exit) {
+		boolean isValid = true;
+		long pathLength = 0;
+		if (!isReached(exit)) {
+			isValid = false;
+			System.out.println("[Validation] Exit is not reached.");
+		}
+		else if (numReached < numRecorded) {
+			isValid = false;
+			System.out.println("[Validation] Visited cell not reachable.");
+		}
+		else
+			pathLength = pathLength(exit);
+
+		if (isValid) {
+			System.out.println("[Validation] Number of cells visited = " + numReached);
+			System.out.println("[Validation] Path length of the solution = " + pathLength);
+		}
+		return isValid;
+	} // end of validate()
+
+
+	/**
+	 * Cell next to a cell, for dir = -1 through its tunnel.
+	 * @return Index of the next cell if the passage is open and it is recorded, otherwise -1.
+	 */
+	protected long next(long cell, int dir) {
+		long next;
+		if (dir < 0)
+			next = maze.tunnelTarget(cell);
+		else
+			next = maze.isOpen(cell, dir) ? maze.neighbor(cell, dir) : -1;
+		if (next < 0 || !isRecorded(slot(next)))
+			return -1;
+		return next;
+	} // end of next()
+
+
+	/**
+	 * Mark a recorded cell reached, then the recorded cells connected to it which are not, breadth first.
+	 */
+	protected void reach(long cell) {
+		state[slot(cell)] |= 1;
+		numReached++;
+		int tail = 0;
+		queue[tail++] = cell;
+		for (int head = 0; head < tail; head++) {
+			long curr = queue[head];
+			for (int dir = -1; dir < Maze.NUM_DIR; dir++) {
+				long next = next(curr, dir);
+				if (next < 0)
+					continue;
+				int i = slot(next);
+				if (isReached(i))
+					continue;
+				state[i] |= 1;
+				numReached++;
+				tail = push(tail, next);
+			}
+		}
+	} // end of reach()
+
+
+	/**
+	 * Step count of a cell from the entrance through recorded cells, by a breadth first search from the entrance.
+	 * @param cell Index of a reached cell.
+	 * @return The step count, 1 for the entrance.
+	 */
+	protected long pathLength(long cell) {
+		if (++search == Integer.MAX_VALUE) {
+			Arrays.fill(searched, 0);
+			search = 1;
+		}
+		int i = slot(entrance);
+		searched[i] = search;
+		steps[i] = 1;
+		int tail = 0;
+		queue[tail++] = entrance;
+		for (int head = 0; head < tail; head++) {
+			long curr = queue[head];
+			int step = steps[slot(curr)];
+			if (curr == cell)
+				return step;
+			for (int dir = -1; dir < Maze.NUM_DIR; dir++) {
+				long next = next(curr, dir);
+				if (next < 0)
+					continue;
+				int j = slot(next);
+				if (searched[j] == search)
+					continue;
+				searched[j] = search;
+				steps[j] = step + 1;
+				tail = push(tail, next);
+			}
+		}
+		return 0;
+	} // end of pathLength()
+
+
+	/**
+	 * Add a cell at the tail of the queue, growing it if full. Every cell is queued once per search,
+	 * so the queue never holds more than numRecorded cells.
+	 * @return The new tail.
+	 */
+	protected int push(int tail, long cell) {
+		if (tail == queue.length)
+			queue = Arrays.copyOf(queue, 2 * queue.length);
+		queue[tail] = cell;
+		return tail + 1;
+	} // end of push()
+
+
+	/**
+	 * @return True if slot i holds a cell of the current generation.
+	 */
+	protected boolean isRecorded(int i) {
+		return state[i] >>> 1 == generation;
+	} // end of isRecorded()
+
+
+	/**
+	 * @return True if slot i holds a reached cell of the current generation.
+	 */
+	protected boolean isReached(int i) {
+		return state[i] == 2 * generation + 1;
+	} // end of isReached()
+
+
+	/**
+	 * Add a cell, not reached, at the empty slot i.
+	 */
+	protected void add(int i, long cell) {
+		keys[i] = cell + 1;
+		state[i] = 2 * generation;
+		numRecorded++;
+		if (2 * numRecorded > keys.length)
+			grow();
+	} // end of add()
+
+
+	/**
+	 * @return Slot of the cell in the hash table, or the empty slot where it would go.
+	 */
+	protected int slot(long cell) {
+		int mask = keys.length - 1;
+		long h = cell * 0x9e3779b97f4a7c15L;
+		int i = (int) (h ^ (h >>> 32)) & mask;
+		while (isRecorded(i) && keys[i] != cell + 1)
+			i = (i + 1) & mask;
+		return i;
+	} // end of slot()
+
+
+	/**
+	 * Double the hash table, keeping the cells of the current generation only.
+	 */
+	protected void grow() {
+		long oldKeys[] = keys;
+		int oldState[] = state;
+		keys = new long[2 * oldKeys.length];
+		state = new int[2 * oldKeys.length];
+		searched = new int[2 * oldKeys.length];
+		steps = new int[2 * oldKeys.length];
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldState[j] >>> 1 != generation)
+				continue;
+			int i = slot(oldKeys[j] - 1);
+			keys[i] = oldKeys[j];
+			state[i] = oldState[j];
+		}
+	} // end of grow()
+
+} // end of class FootprintRecord
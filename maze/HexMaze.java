@@ -10,6 +10,8 @@ import maze.StdDraw;
  * @author Youhan Xia
  * @author Jeffrey Chan
  * 
+ * Row r of the map matrix is shifted by (r + 1) / 2 columns, so that STORE_CELLS keeps null padding for the
+ * Cell coordinates the solvers use. The bit storages, cell indices and the footprint record are dense.
  */
 public class HexMaze extends NormalMaze {
 	
@@ -33,12 +35,14 @@ public class HexMaze extends NormalMaze {
 	
 	
 	@Override
-	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
-		// set up maze constants
-		sizeR = rs;
-		sizeC = cs;
-		sizeTunnel = tunnelList.size();
-		
+	protected void setUp(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
+		// entrance and exit are given in columns of the hexagon rows, shift them to map columns
+		super.setUp(rs, cs, entR, entC + (entR + 1) / 2, exitR, exitC + (exitR + 1) / 2, tunnelList);
+	} // end of setUp()
+
+
+	@Override
+	protected void buildCells() {
 		// set up map matrix
 		map = new Cell[sizeR][sizeC + (sizeR + 1) / 2];
 		for (int i = 0; i < sizeR; i++){
@@ -62,50 +66,25 @@ public class HexMaze extends NormalMaze {
 				}
 			}
 		}
-		
-		// set up entrance and exit
-		if (isIn(entR, entC + (entR + 1) / 2))
-			entrance = map[entR][entC + (entR + 1) / 2];
-		if (isIn(exitR, exitC + (exitR + 1) / 2))
-			exit = map[exitR][exitC + (exitR + 1) / 2];
-
-                // set up recording matrix for validation
-                isRecorded = new boolean[sizeR][sizeC + (sizeR + 1) / 2];
-	} // end of initMaze()
-	
-	
+	} // end of buildCells()
+
+
 	@Override
-	public boolean isPerfect() {
-		boolean visited[][] = new boolean[sizeR][sizeC];
-		Queue<Cell> queue = new LinkedList<Cell>();
-		
-		queue.add(entrance);
-		
-		while (!queue.isEmpty()) {
-			Cell currCell = queue.poll();
-			visited[currCell.r][currCell.c - (currCell.r + 1) / 2] = true;
-			int visitedNeigh = 0;
-			for (int i = 0; i < NUM_DIR; i++) {
-				Cell nextCell = currCell.neigh[i];
-				if (!isIn(nextCell) || currCell.wall[i].present)
-					continue;
-				if (visited[nextCell.r][nextCell.c - (nextCell.r + 1) / 2])
-					visitedNeigh += 1; 
-				else
-					queue.add(nextCell);
-			}
-			
-			if (visitedNeigh > 1)
-				return false;
-		}
-		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				if (!visited[i][j])
-					return false;
-		
-		return true;
-	} // end of isPerfect()
+	protected int colShift(int r) {
+		return (r + 1) / 2;
+	} // end of colShift()
+
+
+	@Override
+	protected int wallSlots() {
+		return 3;
+	} // end of wallSlots()
+
+
+	@Override
+	protected int wallSlot(int dir) {
+		return dir < 3 ? dir : -1;
+	} // end of wallSlot()
 	
 	
 	@Override
@@ -113,6 +92,11 @@ public class HexMaze extends NormalMaze {
 		// draw nothing if visualization is switched off
 		if (!isVisu)
 			return;
+
+		if (walls != null) {
+			drawStored();
+			return;
+		}
 		
 		for (int i = 0; i < sizeR; i++)
 			for (int j = (i + 1) / 2; j < sizeC + (i + 1) / 2; j++)
@@ -171,12 +155,56 @@ public class HexMaze extends NormalMaze {
 			}
 		}
 	} // end of draw()
+
+
+	@Override
+	protected void drawStored() {
+		flushCellView();
+		int entDir = openingDir(entrance);
+		int exitDir = openingDir(exit);
+
+		StdDraw.setCanvasSize(900, 900);
+		StdDraw.setXscale(-1, sizeC + 1.5);
+		StdDraw.setYscale(-1, sizeR+1);
+
+		// draw entrance
+		StdDraw.setPenColor(StdDraw.BLUE);
+		if (entrance != null) {
+			StdDraw.filledCircle(entrance.r % 2 * 0.5 + entrance.c - (entrance.r + 1) / 2 + 0.5, entrance.r + 0.5, 0.375);
+		}
+
+		// draw exit
+		StdDraw.setPenColor(StdDraw.RED);
+		if (exit != null) {
+			StdDraw.filledCircle(exit.r % 2 * 0.5 + exit.c - (exit.r + 1) / 2 + 0.5, exit.r + 0.5, 0.375);
+		}
+
+		// draw walls, the east, northeast and northwest walls from the cell owning them 
+		// and the other walls only on the boundary
+		double halfEdge = 1.0 / 3;
+		StdDraw.setPenColor(StdDraw.BLACK);
+		for (int r = 0; r < sizeR; r++) {
+			for (int c = 0; c < sizeC; c++) {
+				double shift = r % 2 * 0.5;
+				int cc = c + (r + 1) / 2;
+				if (isClosed(r, cc, EAST, entDir, exitDir)) StdDraw.line(c+1+shift, r+0.5-halfEdge, c+1+shift, r+0.5+halfEdge);
+				if (isClosed(r, cc, NORTHEAST, entDir, exitDir)) StdDraw.line(c+0.5+shift, r+0.5+2*halfEdge, c+1+shift, r+0.5+halfEdge);
+				if (isClosed(r, cc, NORTHWEST, entDir, exitDir)) StdDraw.line(c+0.5+shift, r+0.5+2*halfEdge, c+shift, r+0.5+halfEdge);
+				if (wallBit(r, cc, WEST) < 0 && isClosed(r, cc, WEST, entDir, exitDir)) StdDraw.line(c+shift, r+0.5-halfEdge, c+shift, r+0.5+halfEdge);
+				if (wallBit(r, cc, SOUTHWEST) < 0 && isClosed(r, cc, SOUTHWEST, entDir, exitDir)) StdDraw.line(c+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge);
+				if (wallBit(r, cc, SOUTHEAST) < 0 && isClosed(r, cc, SOUTHEAST, entDir, exitDir)) StdDraw.line(c+1+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge);
+			}
+		}
+	} // end of drawStored()
 	
 	
 	@Override
 	public void drawFtPrt(Cell cell) {
                 // record every cell drawn
-                isRecorded[cell.r][cell.c] = true;
+                if (incremental)
+                        footprints.record(cellIndexLong(cell.r, cell.c));
+                else
+                        isRecorded[cell.r][cell.c - (cell.r + 1) / 2] = true;
 
 		// draw nothing if visualization is switched off
 		if (!isVisu)
@@ -185,44 +213,71 @@ public class HexMaze extends NormalMaze {
 		StdDraw.setPenColor(StdDraw.GRAY);
 		StdDraw.filledCircle(cell.r % 2 * 0.5 + cell.c - (cell.r + 1) / 2 + 0.5, cell.r + 0.5, 0.25);
 	} // end of drawFtPrt()
+
+
+	@Override
+	public void drawFtPrt(long cell) {
+		int r = (int) (cell / sizeC);
+		int c = (int) (cell - (long) r * sizeC);
+                // record every cell drawn
+                if (incremental)
+                        footprints.record(cell);
+                else
+                        isRecorded[r][c] = true;
+
+		// draw nothing if visualization is switched off
+		if (!isVisu)
+			return;
+
+		StdDraw.setPenColor(StdDraw.GRAY);
+		StdDraw.filledCircle(r % 2 * 0.5 + c + 0.5, r + 0.5, 0.25);
+	} // end of drawFtPrt()
 	
 
         @Override
         public boolean validate() {
+                if (incremental)
+                        return footprints.validate(cellIndexLong(exit.r, exit.c));
+                if (walls != null)
+                        return validateStored();
+
                 boolean isValid = true;
                 int pathLength = 0;
                 int count = 0;
 
-                int stepCount[][] = new int[sizeR][sizeC + (sizeR + 1) / 2];
+                int stepCount[][] = new int[sizeR][sizeC];
                 Queue<Cell> queue = new LinkedList<Cell>();
 
                 queue.add(entrance);
-                stepCount[entrance.r][entrance.c] = 1;
+                stepCount[entrance.r][entrance.c - (entrance.r + 1) / 2] = 1;
 
                 while (!queue.isEmpty()) {
                         Cell cell = queue.poll();
                         count++;
-                        int step = stepCount[cell.r][cell.c];
+                        int step = stepCount[cell.r][cell.c - (cell.r + 1) / 2];
 
                         for (int i = 0; i < Maze.NUM_DIR; i++) {
                                 Cell next = cell.neigh[i];
-                                if (next != null && !cell.wall[i].present && isRecorded[next.r][next.c] && stepCount[next.r][next.c] == 0) {
-                                        stepCount[next.r][next.c] = step + 1;
+                                if (next == null || cell.wall[i].present)
+                                        continue;
+                                int nc = next.c - (next.r + 1) / 2;
+                                if (isRecorded[next.r][nc] && stepCount[next.r][nc] == 0) {
+                                        stepCount[next.r][nc] = step + 1;
                                         queue.add(next);
                                 }
                         }
                 }
 
-                if (stepCount[exit.r][exit.c] == 0) {
+                if (stepCount[exit.r][exit.c - (exit.r + 1) / 2] == 0) {
                         isValid = false;
                         System.out.println("[Validation] Exit is not reached.");
                 }
                 else {
-                        pathLength = stepCount[exit.r][exit.c];
+                        pathLength = stepCount[exit.r][exit.c - (exit.r + 1) / 2];
                 }
 
                 for (int i = 0; i < sizeR; i++){
-                        for (int j = 0; j < sizeC + (sizeR + 1) / 2; j++) {
+                        for (int j = 0; j < sizeC; j++) {
                                 if (isValid && isRecorded[i][j] && stepCount[i][j] == 0) {
                                         isValid = false;
                                         System.out.println("[Validation] Visited cell not reachable.");
@@ -0,0 +1,183 @@
+package maze;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Perfectness check for mazes of more than Integer.MAX_VALUE cells, sweeping the rows through the long API.
+ *
+ * @author Zaid & Swapnil
+ *
+ * A union-find over all cells would need a long per cell. Passages only join a row to itself and to the next row,
+ * so the sweep keeps a union-find over the sets of the current and next rows only, relabelled after every row,
+ * plus the sets holding the near end of a tunnel whose far end is not reached yet.
+ * A passage joining two cells of the same set closes a loop, as with PerfectnessChecker.
+ * A set reaching neither the next row nor a pending tunnel is closed for good, so it is disconnected from the rest.
+ * Memory is proportional to the width of the maze and cells are read in index order.
+ * NormalMaze.isPerfect() switches to this checker for large mazes.
+ */
+public class LongPerfectnessChecker extends PerfectnessChecker {
+	/**
+	 * set ids of the cells of the current row and of the next row, -1 if not assigned yet
+	 */
+	protected int label[] = new int[0];
+	protected int next[] = new int[0];
+
+	/**
+	 * new id of each root when relabelling, valid if stamp[id] is the current row
+	 */
+	protected int remap[] = new int[0];
+	protected int stamp[] = new int[0];
+
+	/**
+	 * far end of each pending tunnel, with the set id of its near end
+	 */
+	protected Map<Long, Integer> pending = new HashMap<Long, Integer>();
+
+	/**
+	 * number of set ids in use, and number of them given to the sets of the next row while relabelling
+	 */
+	protected int numIds;
+	protected int numAlive;
+
+	/**
+	 * set id of cell 0
+	 */
+	protected int zero;
+
+
+	@Override
+	public boolean check(Maze maze) {
+		this.maze = maze;
+		result = PERFECT;
+		problemCell = -1;
+		problemDir = -1;
+
+		int cols = maze.sizeC;
+		int capacity = 2 * cols + 2 * maze.sizeTunnel + 1;
+		if (label.length != cols) {
+			label = new int[cols];
+			next = new int[cols];
+		}
+		if (sets.size() != capacity) {
+			sets.resize(capacity);
+			remap = new int[capacity];
+			stamp = new int[capacity];
+		}
+		pending.clear();
+		numIds = 0;
+		zero = 0;
+		for (int c = 0; c < cols; c++)
+			next[c] = -1;
+
+		for (int r = 0; r < maze.sizeR; r++) {
+			int temp[] = label;
+			label = next;
+			next = temp;
+			for (int c = 0; c < cols; c++)
+				next[c] = -1;
+			if (!sweepRow(r, cols) || !relabel(r, cols))
+				return false;
+		}
+		return true;
+	} // end of check()
+
+
+	/**
+	 * Union the passages from the cells of row r.
+	 * @return False if a loop is found.
+	 */
+	protected boolean sweepRow(int r, int cols) {
+		long first = (long) r * cols;
+		long nextFirst = first + cols;
+		for (int c = 0; c < cols; c++) {
+			long cell = first + c;
+			if (label[c] < 0)
+				label[c] = newId();
+			int id = label[c];
+
+			// east stays in the row, northeast and north(west) lead to the next row
+			for (int dir = 0; dir < 3; dir++) {
+				if (!maze.isOpen(cell, dir))
+					continue;
+				long other = maze.neighbor(cell, dir);
+				int ids[] = other < nextFirst ? label : next;
+				int i = (int) (other - (other < nextFirst ? first : nextFirst));
+				if (ids[i] < 0)
+					ids[i] = sets.find(id);
+				else if (!sets.union(id, ids[i]))
+					return fail(LOOP, cell, dir);
+			}
+
+			long other = maze.tunnelTarget(cell);
+			if (other > cell)
+				pending.put(other, id);
+			else if (other >= 0) {
+				Integer near = pending.remove(cell);
+				if (near != null && !sets.union(id, near))
+					return fail(LOOP, cell, -1);
+			}
+		}
+		return true;
+	} // end of sweepRow()
+
+
+	/**
+	 * Give the sets reaching the next row or a pending tunnel new ids from 0, and check that the other sets
+	 * of row r may be left behind.
+	 * @return False if a set is closed while other cells remain.
+	 */
+	protected boolean relabel(int r, int cols) {
+		numAlive = 0;
+		for (int c = 0; c < cols; c++)
+			if (next[c] >= 0)
+				next[c] = alive(sets.find(next[c]), r);
+		for (Map.Entry<Long, Integer> entry : pending.entrySet())
+			entry.setValue(alive(sets.find(entry.getValue()), r));
+
+		// a set closed at the last row must hold every cell, i.e. be the set of cell 0
+		long first = (long) r * cols;
+		int zeroRoot = sets.find(zero);
+		for (int c = 0; c < cols; c++) {
+			int root = sets.find(label[c]);
+			if (stamp[root] == r + 1)
+				continue;
+			if (r == maze.sizeR - 1 && root == zeroRoot)
+				continue;
+			// if the set of cell 0 is closed, any cell of the next row is not connected to it
+			if (root == zeroRoot)
+				return fail(DISCONNECTED, first + cols, -1);
+			return fail(DISCONNECTED, first + c, -1);
+		}
+
+		if (r < maze.sizeR - 1)
+			zero = remap[zeroRoot];
+		numIds = numAlive;
+		for (int id = 0; id < numIds; id++)
+			sets.makeSet(id);
+		return true;
+	} // end of relabel()
+
+
+	/**
+	 * @return New id of a root reaching the next row, numbered in order of appearance.
+	 */
+	protected int alive(int root, int r) {
+		if (stamp[root] != r + 1) {
+			stamp[root] = r + 1;
+			remap[root] = numAlive++;
+		}
+		return remap[root];
+	} // end of alive()
+
+
+	/**
+	 * @return A fresh set id holding a single cell.
+	 */
+	protected int newId() {
+		sets.makeSet(numIds);
+		stamp[numIds] = 0;
+		return numIds++;
+	} // end of newId()
+
+} // end of class LongPerfectnessChecker
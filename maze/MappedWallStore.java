@@ -0,0 +1,221 @@
+package maze;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Wall store keeping its bits in a memory-mapped file, so the maze is paged in and out by the OS
+ * and can be larger than the heap.
+ *
+ * @author Zaid & Swapnil
+ *
+ * The file starts with a header {magic, rows, cols, slots, length of the maze parameters, maze parameters...},
+ * followed by the bits at the next multiple of 8 bytes.
+ * The bits are mapped in chunks of CHUNK_SIZE bytes as a single mapping is limited to 2GB.
+ * Bit i is bit i % 8 of byte i / 8, i.e. bit i % 64 of the little-endian long holding the byte.
+ */
+public class MappedWallStore extends WallStore {
+	/**
+	 * first 8 bytes of a maze file, "MAZEWALL"
+	 */
+	public final static long MAGIC = 0x4d415a4557414c4cL;
+
+	/**
+	 * size of each mapped chunk
+	 */
+	public final static int CHUNK_SHIFT = 30;
+	public final static long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+	/**
+	 * file holding the bits
+	 */
+	public final File file;
+
+	/**
+	 * maze parameters saved with the bits, as given to create()
+	 */
+	public final int header[];
+
+	/**
+	 * true if the file was opened read-only
+	 */
+	public final boolean readOnly;
+
+	protected FileChannel channel;
+	protected MappedByteBuffer chunks[];
+
+	/**
+	 * little-endian long view of the chunks, for atomic updates of the aligned long holding a bit
+	 */
+	protected static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+
+	protected MappedWallStore(File file, FileChannel channel, boolean readOnly, int rows, int cols, int slots, int header[]) throws IOException {
+		super(rows, cols, slots);
+		this.file = file;
+		this.channel = channel;
+		this.readOnly = readOnly;
+		this.header = header;
+
+		long offset = dataOffset(header.length);
+		long numBytes = ((numBits() + 63) >>> 6) << 3;
+		chunks = new MappedByteBuffer[(int) ((numBytes + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+		for (int i = 0; i < chunks.length; i++) {
+			long start = (long) i << CHUNK_SHIFT;
+			chunks[i] = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+					offset + start, Math.min(CHUNK_SIZE, numBytes - start));
+		}
+	} // end of MappedWallStore()
+
+
+	/**
+	 * Create a new all-wall store in file, replacing its content.
+	 * @param file File to hold the bits.
+	 * @param rows Number of rows of cells.
+	 * @param cols Number of cells in a row.
+	 * @param slots Number of wall slots owned by each cell.
+	 * @param header Maze parameters to save with the bits.
+	 * @return The store.
+	 * @throws IOException If the file cannot be created or mapped.
+	 */
+	public static MappedWallStore create(File file, int rows, int cols, int slots, int header[]) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		ByteBuffer buf = ByteBuffer.allocate((int) dataOffset(header.length));
+		buf.putLong(MAGIC).putInt(rows).putInt(cols).putInt(slots).putInt(header.length);
+		for (int i = 0; i < header.length; i++)
+			buf.putInt(header[i]);
+		buf.rewind();
+		while (buf.hasRemaining())
+			channel.write(buf);
+		// mapping past the end of the file extends it with zeros, i.e. all walls present
+		return new MappedWallStore(file, channel, false, rows, cols, slots, header);
+	} // end of create()
+
+
+	/**
+	 * Open a store saved by create().
+	 * @param file File holding the bits.
+	 * @param readOnly True to map the file read-only.
+	 * @return The store.
+	 * @throws IOException If the file cannot be read or is not a maze file.
+	 */
+	public static MappedWallStore open(File file, boolean readOnly) throws IOException {
+		FileChannel channel = readOnly ? FileChannel.open(file.toPath(), StandardOpenOption.READ)
+				: FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		ByteBuffer buf = ByteBuffer.allocate(24);
+		while (buf.hasRemaining() && channel.read(buf) >= 0);
+		buf.flip();
+		if (buf.remaining() < 24 || buf.getLong() != MAGIC) {
+			channel.close();
+			throw new IOException(file + " is not a maze file.");
+		}
+		int rows = buf.getInt();
+		int cols = buf.getInt();
+		int slots = buf.getInt();
+		int header[] = new int[buf.getInt()];
+		buf = ByteBuffer.allocate(4 * header.length);
+		while (buf.hasRemaining() && channel.read(buf) >= 0);
+		buf.flip();
+		for (int i = 0; i < header.length; i++)
+			header[i] = buf.getInt();
+		return new MappedWallStore(file, channel, readOnly, rows, cols, slots, header);
+	} // end of open()
+
+
+	/**
+	 * Offset of the bits in the file, after the header.
+	 * @param headerLength Number of maze parameters in the header.
+	 * @return The offset in bytes.
+	 */
+	protected static long dataOffset(int headerLength) {
+		return (24 + 4L * headerLength + 7) & ~7L;
+	} // end of dataOffset()
+
+
+	@Override
+	public boolean get(long bit) {
+		long b = bit >>> 3;
+		return (chunks[(int) (b >>> CHUNK_SHIFT)].get((int) (b & (CHUNK_SIZE - 1))) & (1 << (bit & 7))) != 0;
+	} // end of get()
+
+
+	@Override
+	public void set(long bit) {
+		long b = bit >>> 3;
+		MappedByteBuffer chunk = chunks[(int) (b >>> CHUNK_SHIFT)];
+		int i = (int) (b & (CHUNK_SIZE - 1));
+		chunk.put(i, (byte) (chunk.get(i) | (1 << (bit & 7))));
+	} // end of set()
+
+
+	@Override
+	public void setConcurrent(long bit) {
+		// atomic or, as the neighboring bits of the long may be set by another thread
+		long b = (bit >>> 6) << 3;
+		WORDS.getAndBitwiseOr(chunks[(int) (b >>> CHUNK_SHIFT)], (int) (b & (CHUNK_SIZE - 1)), 1L << bit);
+	} // end of setConcurrent()
+
+
+	@Override
+	public void clear(long bit) {
+		long b = bit >>> 3;
+		MappedByteBuffer chunk = chunks[(int) (b >>> CHUNK_SHIFT)];
+		int i = (int) (b & (CHUNK_SIZE - 1));
+		chunk.put(i, (byte) (chunk.get(i) & ~(1 << (bit & 7))));
+	} // end of clear()
+
+
+	@Override
+	public void clearAll() {
+		for (int i = 0; i < chunks.length; i++)
+			for (int j = 0; j < chunks[i].limit(); j += 8)
+				chunks[i].putLong(j, 0L);
+	} // end of clearAll()
+
+
+	@Override
+	public long cardinality() {
+		long count = 0;
+		for (int i = 0; i < chunks.length; i++)
+			for (int j = 0; j < chunks[i].limit(); j += 8)
+				count += Long.bitCount(chunks[i].getLong(j));
+		return count;
+	} // end of cardinality()
+
+
+	@Override
+	public boolean isReadOnly() {
+		return readOnly;
+	} // end of isReadOnly()
+
+
+	/**
+	 * Write changes of the bits to the file.
+	 */
+	public void force() {
+		if (readOnly)
+			return;
+		for (int i = 0; i < chunks.length; i++)
+			chunks[i].force();
+	} // end of force()
+
+
+	/**
+	 * Write changes to the file and close it. The store must not be used afterwards.
+	 * @throws IOException If the file cannot be closed.
+	 */
+	public void close() throws IOException {
+		force();
+		chunks = null;
+		channel.close();
+	} // end of close()
+
+} // end of class MappedWallStore
@@ -1,5 +1,6 @@
 package maze;
 
+import java.io.File;
 import java.util.List;
 
 /**
@@ -24,6 +25,12 @@ public abstract class Maze {
 	public final static int NORMAL = 0;
 	public final static int TUNNEL = 1;
 	public final static int HEX = 2;
+	// storage of the walls
+	public final static int STORE_CELLS = 0;
+	public final static int STORE_PACKED = 1;
+	public final static int STORE_MAPPED = 2;
+	public final static int STORE_TILED = 3;
+	public final static int STORE_MORTON = 4;
 	//	directions used for indices
 	public final static int EAST = 0;
 	public final static int NORTHEAST = 1;
@@ -47,10 +54,24 @@ public abstract class Maze {
 	public int sizeR;
 	public int sizeC;
 	public int sizeTunnel;
+	// changed by every initMaze() and reinit(), so that data derived from the tunnels can be kept until it changes
+	public int tunnelStamp = 0;
 	public Cell map[][] = null;
 	public Cell entrance;
 	public Cell exit;
 	public boolean isVisu = true;
+	// set before initMaze(), one of the STORE_* constants
+	public int storage = STORE_CELLS;
+	// wall bits, only used when storage is not STORE_CELLS
+	public WallStore walls = null;
+	// file of the wall store when storage is STORE_MAPPED, a temporary file is used if null,
+	// left null by openMapped() so that a new maze never overwrites the opened file
+	public File mapFile = null;
+	// union-find checker used by isPerfect(), holding the report of the last check, a LongPerfectnessChecker above 2^31 - 1 cells
+	public PerfectnessChecker perfectness = new PerfectnessChecker();
+	// set before initMaze(), validate footprints as drawFtPrt() records them instead of scanning the maze in validate(),
+	// always done above 2^31 - 1 cells whatever its value
+	public boolean isIncremental = false;
 	
 	/**
 	 * To test whether the input entrance and exit locations are valid.
@@ -72,9 +93,28 @@ public abstract class Maze {
 	 */
 	public abstract void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList);
 
+	/**
+	 * Same as initMaze(), reusing the Cell objects or the wall store and the recording matrix 
+	 * of the maze if they have the same size and storage. Otherwise the maze is built again by initMaze().
+	 * @param rs Number of rows to build. 
+	 * @param cs Number of columns to build.
+	 * @param entR Row coordinate of entrance.
+	 * @param entC Column coordinate of entrance.
+	 * @param exitR Row coordinate of exit.
+	 * @param exitC Column coordinate of exit.
+	 * @param tunnelList A list tunnels, each in the form of {p1Row, p1Col, p2Row,p2Col}.
+	 */
+	public abstract void reinit(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList);
+
+	/**
+	 * Put back every wall and forget every footprint, keeping the entrance, exit and tunnels.
+	 */
+	public abstract void reset();
+
 	/**
 	 * Check whether the maze is a perfect maze
 	 * @return true if it is perfect maze, i.e. every cell can be visited and there is no loop.
+	 * @throws IllegalStateException If the maze has more than Integer.MAX_VALUE cells and perfectness is not a LongPerfectnessChecker.
 	 */
 	public abstract boolean isPerfect();
 	
@@ -95,4 +135,167 @@ public abstract class Maze {
          */
         public abstract boolean validate();
 
+	/**
+	 * Index based topology, an alternative to the Cell objects of map[][] for code working on plain ints.
+	 * Cells are indexed row by row from 0 to cellCount() - 1, whatever the storage of the walls.
+	 * When a Cell view is attached, changes made through Wall objects are only seen by isOpen() 
+	 * once written back to the wall store.
+	 */
+
+	/**
+	 * @return Number of cells in the maze.
+	 */
+	public abstract int cellCount();
+
+	/**
+	 * @param r Row coordinate
+	 * @param c Column coordinate, as in map[r][c].
+	 * @return Index of cell (r, c).
+	 */
+	public abstract int cellIndex(int r, int c);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return Row coordinate of the cell.
+	 */
+	public abstract int cellRow(int cell);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return Column coordinate of the cell, as in map[r][c].
+	 */
+	public abstract int cellCol(int cell);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @param dir Direction.
+	 * @return Index of the neighbor on direction dir, or -1 if there is none.
+	 */
+	public abstract int neighbor(int cell, int dir);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @param dir Direction.
+	 * @return True if there is a neighbor on direction dir and the wall in between has been removed.
+	 */
+	public abstract boolean isOpen(int cell, int dir);
+
+	/**
+	 * Remove the wall between a cell and its neighbor on direction dir. No effect if there is no such neighbor.
+	 * @param cell Index of a cell.
+	 * @param dir Direction.
+	 */
+	public abstract void carve(int cell, int dir);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return Index of the other end of the tunnel from cell, or -1 if there is none.
+	 */
+	public abstract int tunnelTarget(int cell);
+
+	/**
+	 * Draw a foot print at a cell, same as drawFtPrt(Cell).
+	 * @param cell Index of the cell.
+	 */
+	public abstract void drawFtPrt(int cell);
+
+	/**
+	 * Long indexed topology, the same as the int one for mazes of more than Integer.MAX_VALUE cells.
+	 * The int functions must only be used when cellCountLong() fits in an int, cellCount() throws 
+	 * ArithmeticException otherwise.
+	 */
+
+	/**
+	 * @return Number of cells in the maze.
+	 */
+	public abstract long cellCountLong();
+
+	/**
+	 * @param r Row coordinate
+	 * @param c Column coordinate, as in map[r][c].
+	 * @return Index of cell (r, c).
+	 */
+	public abstract long cellIndexLong(int r, int c);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return Row coordinate of the cell.
+	 */
+	public abstract int cellRow(long cell);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return Column coordinate of the cell, as in map[r][c].
+	 */
+	public abstract int cellCol(long cell);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @param dir Direction.
+	 * @return Index of the neighbor on direction dir, or -1 if there is none.
+	 */
+	public abstract long neighbor(long cell, int dir);
+
+	/**
+	 * @param cell Index of a cell.
+	 * @param dir Direction.
+	 * @return True if there is a neighbor on direction dir and the wall in between has been removed.
+	 */
+	public abstract boolean isOpen(long cell, int dir);
+
+	/**
+	 * Remove the wall between a cell and its neighbor on direction dir. No effect if there is no such neighbor.
+	 * @param cell Index of a cell.
+	 * @param dir Direction.
+	 */
+	public abstract void carve(long cell, int dir);
+
+	/**
+	 * Same as carve(long, int), but safe while other threads carve other walls of the maze.
+	 * @param cell Index of a cell.
+	 * @param dir Direction.
+	 */
+	public abstract void carveConcurrent(long cell, int dir);
+
+	/**
+	 * @return Adjacency graph of the cells, built on the first call after initMaze() or reinit().
+	 */
+	public abstract MazeGraph graph();
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return Index of the other end of the tunnel from cell, or -1 if there is none.
+	 */
+	public abstract long tunnelTarget(long cell);
+
+	/**
+	 * @return Number of tunnel ends, two for each tunnel.
+	 */
+	public abstract int tunnelEndCount();
+
+	/**
+	 * @param i Index of a tunnel end, from 0 to tunnelEndCount() - 1.
+	 * @return Index of the cell at the tunnel end.
+	 */
+	public abstract long tunnelEnd(int i);
+
+	/**
+	 * Draw a foot print at a cell, same as drawFtPrt(Cell).
+	 * @param cell Index of the cell.
+	 */
+	public abstract void drawFtPrt(long cell);
+
+	/**
+	 * Build the map matrix of Cell and Wall objects from the wall store, so code written against map[][] 
+	 * can work on a maze whose walls are stored in bits. 
+	 * Changes made to the Wall objects are written back to the store by the maze functions and releaseCellView().
+	 * @return The map matrix.
+	 */
+	public abstract Cell[][] cellView();
+
+	/**
+	 * Write the Cell view back to the wall store and drop it.
+	 */
+	public abstract void releaseCellView();
+
 }
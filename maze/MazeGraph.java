@@ -0,0 +1,148 @@
+package maze;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+
+/**
+ * Adjacency of the cells of a maze as a graph, for the generators, read through the int API of the maze.
+ *
+ * @author Zaid & Swapnil
+ *
+ * The two ends of a tunnel are always connected, so they are a single node of the graph:
+ * any spanning tree of the graph then goes through every tunnel and is a perfect maze,
+ * and a generator needs no code of its own for tunnels. Other cells are nodes of their own.
+ * A node is numbered as its cell, the end of a tunnel with the smaller index for a tunnel.
+ * The edges of node u are slots 0 to slots - 1: the directions of its cell, then the directions of the other end
+ * of its tunnel, a slot leading nowhere if the neighbor does not exist. A wall between the two ends of a tunnel
+ * would close a loop and leads nowhere either. Nothing is stored: the ends are merged as the edges are read,
+ * so a maze without tunnels costs no more than its int API.
+ * A generator working on rows or tiles of cells fills plainMaze() instead, and carveSpanningTree() then keeps
+ * the passages of it that form a spanning tree of the graph.
+ */
+public class MazeGraph {
+	/**
+	 * maze of the graph
+	 */
+	public final Maze maze;
+
+	/**
+	 * number of cells, nodes are numbered from 0 to numCells - 1 with gaps at the tunnel ends which are not nodes
+	 */
+	public final int numCells;
+
+	/**
+	 * number of nodes
+	 */
+	public final int numNodes;
+
+	/**
+	 * number of edge slots of a node, Maze.NUM_DIR more for a tunnel maze
+	 */
+	public final int slots;
+
+
+	/**
+	 * Build the graph of a maze.
+	 * @param maze Maze of at most Integer.MAX_VALUE cells.
+	 */
+	public MazeGraph(Maze maze) {
+		this.maze = maze;
+		numCells = maze.cellCount();
+		int n = numCells;
+		for (int i = 0; i < maze.tunnelEndCount(); i++) {
+			int end = (int) maze.tunnelEnd(i);
+			if (node(end) != end)
+				n--;
+		}
+		numNodes = n;
+		slots = maze.tunnelEndCount() > 0 ? 2 * Maze.NUM_DIR : Maze.NUM_DIR;
+	} // end of MazeGraph()
+
+
+	/**
+	 * @param cell Index of a cell.
+	 * @return Node of the cell.
+	 */
+	public int node(int cell) {
+		int end = maze.tunnelTarget(cell);
+		return end >= 0 && end < cell ? end : cell;
+	} // end of node()
+
+
+	/**
+	 * Set the cells which are not nodes, so that a set of nodes indexed by cell has no gaps.
+	 * @param set Set of cells.
+	 */
+	public void markNonNodes(BitSet set) {
+		for (int i = 0; i < maze.tunnelEndCount(); i++) {
+			int end = (int) maze.tunnelEnd(i);
+			if (node(end) != end)
+				set.set(end);
+		}
+	} // end of markNonNodes()
+
+
+	/**
+	 * @param u Node.
+	 * @param k Edge slot, from 0 to slots - 1.
+	 * @return Node the edge leads to, -1 if it leads nowhere.
+	 */
+	public int target(int u, int k) {
+		// without tunnels every cell is a node of its own
+		if (slots == Maze.NUM_DIR)
+			return maze.neighbor(u, k);
+		int cell = k < Maze.NUM_DIR ? u : maze.tunnelTarget(u);
+		if (cell < 0)
+			return -1;
+		int neigh = maze.neighbor(cell, k % Maze.NUM_DIR);
+		if (neigh < 0)
+			return -1;
+		int v = node(neigh);
+		return v == u ? -1 : v;
+	} // end of target()
+
+
+	/**
+	 * Remove the wall of an edge in the maze.
+	 * @param u Node.
+	 * @param k Edge slot leading to another node.
+	 */
+	public void carve(int u, int k) {
+		int cell = k < Maze.NUM_DIR ? u : maze.tunnelTarget(u);
+		maze.carve(cell, k % Maze.NUM_DIR);
+	} // end of carve()
+
+
+	/**
+	 * @return Maze of the size, entrance and exit of the maze of the graph, without tunnels, with walls kept in bits.
+	 */
+	public Maze plainMaze() {
+		Maze plain = new NormalMaze();
+		plain.storage = Maze.STORE_PACKED;
+		plain.isVisu = false;
+		plain.initMaze(maze.sizeR, maze.sizeC, maze.entrance.r, maze.entrance.c, maze.exit.r, maze.exit.c, new ArrayList<int[]>());
+		return plain;
+	} // end of plainMaze()
+
+
+	/**
+	 * Carve the passages of a perfect maze without tunnels which join nodes of the graph not yet connected.
+	 * The passages join all the cells, so they join all the nodes, and the walls carved are a spanning tree:
+	 * only a passage between two cells already connected through a tunnel is left closed.
+	 * @param plain Perfect maze from plainMaze().
+	 */
+	public void carveSpanningTree(Maze plain) {
+		UnionFind sets = new UnionFind();
+		sets.reset(numCells);
+		for (int cell = 0; cell < numCells; cell++) {
+			for (int dir = 0; dir < 3; dir++) {
+				int neigh = maze.neighbor(cell, dir);
+				if (neigh < 0 || !plain.isOpen(cell, dir))
+					continue;
+				if (sets.union(node(cell), node(neigh)))
+					maze.carve(cell, dir);
+			}
+		}
+	} // end of carveSpanningTree()
+
+} // end of class MazeGraph
@@ -1,5 +1,8 @@
 package maze;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 import maze.StdDraw;
@@ -14,10 +17,35 @@ import maze.StdDraw;
 public class NormalMaze extends Maze {
 
  	/**
- 	 * Boolean matrix to record visited cells by drawFtPrt(Cell)
+ 	 * Boolean matrix to record visited cells by drawFtPrt(Cell), sizeR x sizeC by row and unshifted column
  	 */
  	protected boolean isRecorded[][];
 
+	/**
+	 * Sparse record of the cells visited by drawFtPrt(), used instead of isRecorded if incremental
+	 */
+	protected FootprintRecord footprints;
+
+	/**
+	 * validation mode of the current maze: isIncremental, or true whatever it is for more than Integer.MAX_VALUE cells
+	 */
+	protected boolean incremental = false;
+
+	/**
+	 * neighOffset[r % 2][dir] is the difference of the cell indices of a cell in row r and its neighbor on direction dir
+	 */
+	protected int neighOffset[][] = new int[2][NUM_DIR];
+
+	/**
+	 * storage the walls were built with, reused by reinit() if it has not changed
+	 */
+	protected int builtStorage = -1;
+
+	/**
+	 * adjacency graph of the cells, null until graph() is called
+	 */
+	protected MazeGraph graph = null;
+
 	
 	public NormalMaze() {
 		type = NORMAL;
@@ -57,12 +85,441 @@ public class NormalMaze extends Maze {
 	
 	@Override
 	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
+		releaseStore();
+		setUp(rs, cs, entR, entC, exitR, exitC, tunnelList);
+		builtStorage = storage;
+
+		if (storage == STORE_CELLS) {
+			if (cellCountLong() > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("Maze of " + rs + " x " + cs + " cells needs packed or mapped storage.");
+			// set up map matrix
+			buildCells();
+
+			// set up entrance and exit
+			if (entrance != null)
+				entrance = map[entrance.r][entrance.c];
+			if (exit != null)
+				exit = map[exit.r][exit.c];
+		}
+		else {
+			// walls are bits, the map matrix is only built on request by cellView()
+			walls = newStore(storeHeader(entR, entC, exitR, exitC, tunnelList));
+		}
+	} // end of initMaze()
+
+
+	/**
+	 * Set up everything of the maze except its walls: constants, entrance, exit and the recording matrix.
+	 * Entrance and exit are detached cells holding their coordinates only.
+	 * @param rs Number of rows to build. 
+	 * @param cs Number of columns to build.
+	 * @param entR Row coordinate of entrance.
+	 * @param entC Column coordinate of entrance.
+	 * @param exitR Row coordinate of exit.
+	 * @param exitC Column coordinate of exit.
+	 * @param tunnelList A list tunnels, each in the form of {p1Row, p1Col, p2Row,p2Col}.
+	 */
+	protected void setUp(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
 		// set up maze constants
 		sizeR = rs;
 		sizeC = cs;
 		sizeTunnel = tunnelList.size();
-		
-		// set up map matrix
+		tunnelStamp++;
+		map = null;
+		walls = null;
+		graph = null;
+
+		if (isIn(entR, entC))
+			entrance = new Cell(entR, entC);
+		if (isIn(exitR, exitC))
+			exit = new Cell(exitR, exitC);
+
+		for (int p = 0; p < 2; p++)
+			for (int k = 0; k < NUM_DIR; k++)
+				neighOffset[p][k] = deltaR[k] * sizeC + deltaC[k] - colShift(2 + p + deltaR[k]) + colShift(2 + p);
+
+ 		// set up recording matrix for validation
+		setUpRecord();
+	} // end of setUp()
+
+
+	/**
+	 * Set up an empty recording matrix, or footprint record if incremental, clearing the one of the maze if any.
+	 * Mazes of more than Integer.MAX_VALUE cells are always validated incrementally, isIncremental is left as set by the caller.
+	 */
+	protected void setUpRecord() {
+		incremental = isIncremental || cellCountLong() > Integer.MAX_VALUE;
+		if (incremental) {
+			isRecorded = null;
+			long start = entrance == null ? -1 : cellIndexLong(entrance.r, entrance.c);
+			if (footprints == null)
+				footprints = new FootprintRecord(this, start);
+			else
+				footprints.clear(start);
+		}
+		else if (isRecorded != null && isRecorded.length == sizeR && isRecorded[0].length == sizeC) {
+			for (int i = 0; i < sizeR; i++)
+				Arrays.fill(isRecorded[i], false);
+		}
+		else
+ 			isRecorded = new boolean[sizeR][sizeC];
+	} // end of setUpRecord()
+
+
+	@Override
+	public void reinit(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
+		if (!canReuse(rs, cs, storeHeader(entR, entC, exitR, exitC, tunnelList))) {
+			initMaze(rs, cs, entR, entC, exitR, exitC, tunnelList);
+			return;
+		}
+
+		Cell cells[][] = map;
+		WallStore store = walls;
+		if (map != null)
+			linkTunnels(false);
+		setUp(rs, cs, entR, entC, exitR, exitC, tunnelList);
+		map = cells;
+		walls = store;
+		if (map != null) {
+			linkTunnels(true);
+			if (entrance != null)
+				entrance = map[entrance.r][entrance.c];
+			if (exit != null)
+				exit = map[exit.r][exit.c];
+		}
+		clearWalls();
+	} // end of reinit()
+
+
+	/**
+	 * Whether reinit() can keep the walls of the maze.
+	 * @param header Store header of the new maze.
+	 * @return True if the size and storage are unchanged and the walls can be written.
+	 */
+	protected boolean canReuse(int rs, int cs, int header[]) {
+		if (rs != sizeR || cs != sizeC || storage != builtStorage)
+			return false;
+		if (storage == STORE_CELLS)
+			return map != null;
+		if (walls == null || walls.isReadOnly())
+			return false;
+		if (storage != STORE_MAPPED)
+			return true;
+		// a mapped store keeps the entrance, exit and tunnels it was created with, and a file of openMapped() is not rewritten
+		MappedWallStore store = (MappedWallStore) walls;
+		return store.file.equals(mapFile) && Arrays.equals(header, store.header);
+	} // end of canReuse()
+
+
+	@Override
+	public void reset() {
+		clearWalls();
+		setUpRecord();
+	} // end of reset()
+
+
+	/**
+	 * Put back every wall, in the wall store and in the Cell objects if any.
+	 */
+	protected void clearWalls() {
+		if (walls != null)
+			walls.clearAll();
+		if (map == null)
+			return;
+		for (int i = 0; i < map.length; i++)
+			for (int j = 0; j < map[i].length; j++) {
+				if (map[i][j] == null)
+					continue;
+				for (int k = 0; k < NUM_DIR; k++)
+					if (map[i][j].wall[k] != null) {
+						map[i][j].wall[k].present = true;
+						map[i][j].wall[k].drawn = false;
+					}
+			}
+	} // end of clearWalls()
+
+
+	/**
+	 * Set or unset the tunnelTo of the Cell objects at the tunnel ends. 
+	 * @param isLinked False to unset them.
+	 */
+	protected void linkTunnels(boolean isLinked) {
+		// no tunnels in a normal maze
+	} // end of linkTunnels()
+
+
+	/**
+	 * Shift of the columns of row r in the map matrix, the Cell coordinates of STORE_CELLS.
+	 * The wall store, the cell indices and isRecorded are dense and not shifted.
+	 * @param r Row coordinate
+	 * @return 0, rows of a rectangular maze are not shifted.
+	 */
+	protected int colShift(int r) {
+		return 0;
+	} // end of colShift()
+
+
+	@Override
+	public int cellCount() {
+		return Math.toIntExact(cellCountLong());
+	} // end of cellCount()
+
+
+	@Override
+	public int cellIndex(int r, int c) {
+		return r * sizeC + c - colShift(r);
+	} // end of cellIndex()
+
+
+	@Override
+	public int cellRow(int cell) {
+		return cell / sizeC;
+	} // end of cellRow()
+
+
+	@Override
+	public int cellCol(int cell) {
+		int r = cell / sizeC;
+		return cell - r * sizeC + colShift(r);
+	} // end of cellCol()
+
+
+	@Override
+	public int neighbor(int cell, int dir) {
+		int r = cell / sizeC;
+		int c = cell - r * sizeC + colShift(r);
+		if (wallSlot(dir < 3 ? dir : oppoDir[dir]) < 0 || !isIn(r + deltaR[dir], c + deltaC[dir]))
+			return -1;
+		return cell + neighOffset[r & 1][dir];
+	} // end of neighbor()
+
+
+	@Override
+	public boolean isOpen(int cell, int dir) {
+		int r = cell / sizeC;
+		int c = cell - r * sizeC + colShift(r);
+		if (walls != null) {
+			long bit = wallBit(r, c, dir);
+			return bit >= 0 && walls.get(bit);
+		}
+		Wall wall = map[r][c].wall[dir];
+		return wall != null && !wall.present && map[r][c].neigh[dir] != null;
+	} // end of isOpen()
+
+
+	@Override
+	public void carve(int cell, int dir) {
+		int r = cell / sizeC;
+		int c = cell - r * sizeC + colShift(r);
+		if (walls != null) {
+			long bit = wallBit(r, c, dir);
+			if (bit < 0)
+				return;
+			walls.set(bit);
+			// keep an attached Cell view up to date
+			if (map == null)
+				return;
+		}
+		if (map[r][c].neigh[dir] != null)
+			map[r][c].wall[dir].present = false;
+	} // end of carve()
+
+
+	@Override
+	public long cellCountLong() {
+		return (long) sizeR * sizeC;
+	} // end of cellCountLong()
+
+
+	@Override
+	public long cellIndexLong(int r, int c) {
+		return (long) r * sizeC + c - colShift(r);
+	} // end of cellIndexLong()
+
+
+	@Override
+	public int cellRow(long cell) {
+		return (int) (cell / sizeC);
+	} // end of cellRow()
+
+
+	@Override
+	public int cellCol(long cell) {
+		int r = (int) (cell / sizeC);
+		return (int) (cell - (long) r * sizeC) + colShift(r);
+	} // end of cellCol()
+
+
+	@Override
+	public long neighbor(long cell, int dir) {
+		int r = (int) (cell / sizeC);
+		int c = (int) (cell - (long) r * sizeC) + colShift(r);
+		if (wallSlot(dir < 3 ? dir : oppoDir[dir]) < 0 || !isIn(r + deltaR[dir], c + deltaC[dir]))
+			return -1;
+		return cell + neighOffset[r & 1][dir];
+	} // end of neighbor()
+
+
+	@Override
+	public boolean isOpen(long cell, int dir) {
+		if (walls == null)
+			return isOpen(Math.toIntExact(cell), dir);
+		int r = (int) (cell / sizeC);
+		int c = (int) (cell - (long) r * sizeC) + colShift(r);
+		long bit = wallBit(r, c, dir);
+		return bit >= 0 && walls.get(bit);
+	} // end of isOpen()
+
+
+	@Override
+	public void carve(long cell, int dir) {
+		// mazes of more than Integer.MAX_VALUE cells are never viewed as Cell objects
+		if (walls == null || map != null) {
+			carve(Math.toIntExact(cell), dir);
+			return;
+		}
+		int r = (int) (cell / sizeC);
+		int c = (int) (cell - (long) r * sizeC) + colShift(r);
+		long bit = wallBit(r, c, dir);
+		if (bit >= 0)
+			walls.set(bit);
+	} // end of carve()
+
+
+	@Override
+	public void carveConcurrent(long cell, int dir) {
+		int r = (int) (cell / sizeC);
+		int c = (int) (cell - (long) r * sizeC) + colShift(r);
+		if (walls != null) {
+			long bit = wallBit(r, c, dir);
+			if (bit < 0)
+				return;
+			walls.setConcurrent(bit);
+			if (map == null)
+				return;
+		}
+		// every wall is an object of its own, so threads carving different walls do not interfere
+		if (map[r][c].neigh[dir] != null)
+			map[r][c].wall[dir].present = false;
+	} // end of carveConcurrent()
+
+
+	@Override
+	public MazeGraph graph() {
+		if (graph == null)
+			graph = new MazeGraph(this);
+		return graph;
+	} // end of graph()
+
+
+	/**
+	 * Number of wall slots owned by each cell in the wall store.
+	 * @return 2, for the east and north walls.
+	 */
+	protected int wallSlots() {
+		return 2;
+	} // end of wallSlots()
+
+
+	/**
+	 * Create an all-wall store for the maze according to storage.
+	 * @param header Maze parameters saved with a mapped store.
+	 * @return The store.
+	 */
+	protected WallStore newStore(int header[]) {
+		if (storage == STORE_MAPPED) {
+			try {
+				if (mapFile == null) {
+					mapFile = File.createTempFile("maze", ".walls");
+					mapFile.deleteOnExit();
+				}
+				return MappedWallStore.create(mapFile, sizeR, sizeC, wallSlots(), header);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot map " + mapFile, e);
+			}
+		}
+		if (storage == STORE_TILED || storage == STORE_MORTON)
+			return new TiledWallStore(sizeR, sizeC, wallSlots(), storage == STORE_MORTON);
+		return new PackedWallStore(sizeR, sizeC, wallSlots());
+	} // end of newStore()
+
+
+	/**
+	 * Close the store of the maze if it is mapped, before it is replaced, so its file and mappings are released now.
+	 */
+	protected void releaseStore() {
+		if (walls instanceof MappedWallStore) {
+			try {
+				((MappedWallStore) walls).close();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot close " + ((MappedWallStore) walls).file, e);
+			}
+		}
+		walls = null;
+	} // end of releaseStore()
+
+
+	/**
+	 * Maze parameters saved in a mapped store, so that openMapped() can restore the maze.
+	 * @return {type, entR, entC, exitR, exitC, number of tunnels, p1Row, p1Col, p2Row, p2Col, ...}
+	 */
+	protected int[] storeHeader(int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
+		int header[] = new int[6 + 4 * tunnelList.size()];
+		header[0] = type;
+		header[1] = entR;
+		header[2] = entC;
+		header[3] = exitR;
+		header[4] = exitC;
+		header[5] = tunnelList.size();
+		for (int i = 0; i < tunnelList.size(); i++)
+			System.arraycopy(tunnelList.get(i), 0, header, 6 + 4 * i, 4);
+		return header;
+	} // end of storeHeader()
+
+
+	/**
+	 * Open a maze saved in a mapped store, without rebuilding or copying its walls.
+	 * mapFile is left null: initMaze() or reinit() of the maze then build a new maze in a temporary file
+	 * instead of overwriting the opened one.
+	 * @param file File of the mapped store.
+	 * @param readOnly True to open the file read-only, e.g. for solving.
+	 * @return The maze.
+	 * @throws IOException If the file cannot be mapped or is not a maze file.
+	 */
+	public static NormalMaze openMapped(File file, boolean readOnly) throws IOException {
+		MappedWallStore store = MappedWallStore.open(file, readOnly);
+		int header[] = store.header;
+		NormalMaze maze;
+		switch (header[0]) {
+		case NORMAL:
+			maze = new NormalMaze();
+			break;
+		case TUNNEL:
+			maze = new TunnelMaze();
+			break;
+		case HEX:
+			maze = new HexMaze();
+			break;
+		default:
+			store.close();
+			throw new IOException(file + " holds an unknown maze type.");
+		}
+
+		List<int[]> tunnelList = new ArrayList<int[]>();
+		for (int i = 0; i < header[5]; i++)
+			tunnelList.add(Arrays.copyOfRange(header, 6 + 4 * i, 10 + 4 * i));
+		maze.storage = STORE_MAPPED;
+		maze.setUp(store.rows, store.cols, header[1], header[2], header[3], header[4], tunnelList);
+		maze.builtStorage = STORE_MAPPED;
+		maze.walls = store;
+		return maze;
+	} // end of openMapped()
+
+
+	/**
+	 * Set up map matrix with all-wall cells, with neighbors and shared walls assigned.
+	 */
+	protected void buildCells() {
 		map = new Cell[sizeR][sizeC];
 		for (int i = 0; i < sizeR; i++){
 			for (int j = 0; j < sizeC; j++) {
@@ -87,49 +544,138 @@ public class NormalMaze extends Maze {
 				}
 			}
 		}
-		
-		// set up entrance and exit
-		if (isIn(entR, entC))
-			entrance = map[entR][entC];
-		if (isIn(exitR, exitC))
-			exit = map[exitR][exitC];
+	} // end of buildCells()
 
- 		// set up recording matrix for validation
- 		isRecorded = new boolean[sizeR][sizeC];
-	} // end of initMaze()
+
+	/**
+	 * Slot of the wall store used by the wall on direction dir, for dir < 3. 
+	 * @param dir Direction of the wall.
+	 * @return The slot, or -1 if cells have no wall on that direction.
+	 */
+	protected int wallSlot(int dir) {
+		if (dir == EAST)
+			return 0;
+		if (dir == NORTH)
+			return 1;
+		return -1;
+	} // end of wallSlot()
+
+
+	/**
+	 * Locate the bit of the wall on direction dir of cell (r, c) in the wall store.
+	 * @param r Row coordinate
+	 * @param c Column coordinate
+	 * @param dir Direction of the wall.
+	 * @return Index of the bit, or -1 if the wall is on the boundary of the maze and is never removed.
+	 */
+	public long wallBit(int r, int c, int dir) {
+		int nr = r + deltaR[dir];
+		int nc = c + deltaC[dir];
+		if (!isIn(r, c) || !isIn(nr, nc))
+			return -1;
+		// the wall is owned by the cell on its west/south side
+		if (dir >= 3) {
+			r = nr;
+			c = nc;
+			dir = oppoDir[dir];
+		}
+		int slot = wallSlot(dir);
+		if (slot < 0)
+			return -1;
+		return walls.bit(r, c - colShift(r), slot);
+	} // end of wallBit()
+
+
+	@Override
+	public int tunnelTarget(int cell) {
+		return -1;
+	} // end of tunnelTarget()
+
+
+	@Override
+	public long tunnelTarget(long cell) {
+		return -1;
+	} // end of tunnelTarget()
+
+
+	@Override
+	public int tunnelEndCount() {
+		return 0;
+	} // end of tunnelEndCount()
+
+
+	@Override
+	public long tunnelEnd(int i) {
+		throw new IndexOutOfBoundsException("Maze has no tunnel end " + i + ".");
+	} // end of tunnelEnd()
+
+
+	@Override
+	public Cell[][] cellView() {
+		if (map == null && walls != null) {
+			buildCells();
+			for (int i = 0; i < map.length; i++)
+				for (int j = 0; j < map[i].length; j++) {
+					if (map[i][j] == null)
+						continue;
+					for (int k = 0; k < 3; k++) {
+						long bit = wallBit(i, j, k);
+						if (bit >= 0)
+							map[i][j].wall[k].present = !walls.get(bit);
+					}
+				}
+			if (entrance != null)
+				entrance = map[entrance.r][entrance.c];
+			if (exit != null)
+				exit = map[exit.r][exit.c];
+		}
+		return map;
+	} // end of cellView()
+
+
+	/**
+	 * Write the walls of the Cell view, if any, to the wall store.
+	 */
+	protected void flushCellView() {
+		if (map == null || walls == null || walls.isReadOnly())
+			return;
+		for (int i = 0; i < map.length; i++)
+			for (int j = 0; j < map[i].length; j++) {
+				if (map[i][j] == null)
+					continue;
+				for (int k = 0; k < 3; k++) {
+					long bit = wallBit(i, j, k);
+					if (bit < 0)
+						continue;
+					if (map[i][j].wall[k].present)
+						walls.clear(bit);
+					else
+						walls.set(bit);
+				}
+			}
+	} // end of flushCellView()
+
+
+	@Override
+	public void releaseCellView() {
+		if (map == null || walls == null)
+			return;
+		flushCellView();
+		map = null;
+		if (entrance != null)
+			entrance = new Cell(entrance.r, entrance.c);
+		if (exit != null)
+			exit = new Cell(exit.r, exit.c);
+	} // end of releaseCellView()
 	
 	
 	@Override
 	public boolean isPerfect() {
-		boolean visited[][] = new boolean[sizeR][sizeC];
-		Queue<Cell> queue = new LinkedList<Cell>();
-		
-		queue.add(entrance);
-		
-		while (!queue.isEmpty()) {
-			Cell currCell = queue.poll();
-			visited[currCell.r][currCell.c] = true;
-			int visitedNeigh = 0;
-			for (int i = 0; i < NUM_DIR; i++) {
-				Cell nextCell = currCell.neigh[i];
-				if (!isIn(nextCell) || currCell.wall[i].present)
-					continue;
-				if (visited[nextCell.r][nextCell.c])
-					visitedNeigh += 1; 
-				else
-					queue.add(nextCell);
-			}
-			
-			if (visitedNeigh > 1)
-				return false;
-		}
-		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				if (!visited[i][j])
-					return false;
-		
-		return true;
+		flushCellView();
+		// the union-find of the int checkers cannot index the cells of larger mazes
+		if (cellCountLong() > Integer.MAX_VALUE && !(perfectness instanceof LongPerfectnessChecker))
+			throw new IllegalStateException("A maze of " + cellCountLong() + " cells needs a LongPerfectnessChecker as perfectness.");
+		return perfectness.check(this);
 	} // end of isPerfect()
 
 	
@@ -138,6 +684,11 @@ public class NormalMaze extends Maze {
 		// draw nothing if visualization is switched off
 		if (!isVisu)
 			return;
+
+		if (walls != null) {
+			drawStored();
+			return;
+		}
 		
 		for (int i = 0; i < sizeR; i++)
 			for (int j = 0; j < sizeC; j++)
@@ -193,11 +744,88 @@ public class NormalMaze extends Maze {
 		}
 	} // end of draw()
 
+
+	/**
+	 * draw() for walls in the store.
+	 */
+	protected void drawStored() {
+		flushCellView();
+		int entDir = openingDir(entrance);
+		int exitDir = openingDir(exit);
+
+		StdDraw.setCanvasSize(900, 900);
+		StdDraw.setXscale(-1, sizeC+1);
+		StdDraw.setYscale(-1, sizeR+1);
+
+		// draw entrance
+		StdDraw.setPenColor(StdDraw.BLUE);
+		if (entrance != null) {
+			StdDraw.filledCircle(entrance.c + 0.5, entrance.r + 0.5, 0.375);
+		}
+
+		// draw exit
+		StdDraw.setPenColor(StdDraw.RED);
+		if (exit != null) {
+			StdDraw.filledCircle(exit.c + 0.5, exit.r + 0.5, 0.375);
+		}
+
+		// draw walls, each wall once from the cell owning it and the boundary walls on the west and south
+		StdDraw.setPenColor(StdDraw.BLACK);
+		for (int r = 0; r < sizeR; r++) {
+			for (int c = 0; c < sizeC; c++) {
+				if (isClosed(r, c, EAST, entDir, exitDir)) StdDraw.line(c+1, r, c+1, r+1);
+				if (isClosed(r, c, NORTH, entDir, exitDir)) StdDraw.line(c, r+1, c+1, r+1);
+				if (c == 0 && isClosed(r, c, WEST, entDir, exitDir)) StdDraw.line(c, r, c, r+1);
+				if (r == 0 && isClosed(r, c, SOUTH, entDir, exitDir)) StdDraw.line(c, r, c+1, r);
+			}
+		}
+	} // end of drawStored()
+
+
+	/**
+	 * Direction of the boundary wall left open for the entrance or exit when drawing.
+	 * @param cell Entrance or exit.
+	 * @return The first direction without neighbor.
+	 */
+	protected int openingDir(Cell cell) {
+		for (int k = 0; k < NUM_DIR; k++) {
+			if (wallSlot(k < 3 ? k : oppoDir[k]) < 0)
+				continue;
+			if (!isIn(cell.r + deltaR[k], cell.c + deltaC[k]))
+				return k;
+		}
+		return -1;
+	} // end of openingDir()
+
+
+	/**
+	 * Whether a wall of cell (r, c) is drawn, using the wall store.
+	 * @param r Row coordinate
+	 * @param c Column coordinate
+	 * @param dir Direction of the wall.
+	 * @param entDir Direction of the opening of the entrance.
+	 * @param exitDir Direction of the opening of the exit.
+	 * @return True if the wall is present and is not the opening of entrance or exit.
+	 */
+	protected boolean isClosed(int r, int c, int dir, int entDir, int exitDir) {
+		long bit = wallBit(r, c, dir);
+		if (bit >= 0)
+			return !walls.get(bit);
+		if (entrance != null && r == entrance.r && c == entrance.c && dir == entDir)
+			return false;
+		if (exit != null && r == exit.r && c == exit.c && dir == exitDir)
+			return false;
+		return true;
+	} // end of isClosed()
+
 	
 	@Override
 	public void drawFtPrt(Cell cell) {
  		// record every cell drawn
- 		isRecorded[cell.r][cell.c] = true;
+		if (incremental)
+			footprints.record(cellIndexLong(cell.r, cell.c));
+		else
+ 			isRecorded[cell.r][cell.c] = true;
 
 		// draw nothing if visualization is switched off
 		if (!isVisu)
@@ -206,10 +834,40 @@ public class NormalMaze extends Maze {
 		StdDraw.setPenColor(StdDraw.GRAY);
 		StdDraw.filledCircle(cell.c + 0.5, cell.r + 0.5, 0.25);
 	} // end of drawFtPrt()
+
+
+	@Override
+	public void drawFtPrt(int cell) {
+		drawFtPrt((long) cell);
+	} // end of drawFtPrt()
+
+
+	@Override
+	public void drawFtPrt(long cell) {
+		int r = (int) (cell / sizeC);
+		int c = (int) (cell - (long) r * sizeC);
+ 		// record every cell drawn
+		if (incremental)
+			footprints.record(cell);
+		else
+ 			isRecorded[r][c] = true;
+
+		// draw nothing if visualization is switched off
+		if (!isVisu)
+			return;
+
+		StdDraw.setPenColor(StdDraw.GRAY);
+		StdDraw.filledCircle(c + 0.5, r + 0.5, 0.25);
+	} // end of drawFtPrt()
 	
 
         @Override
         public boolean validate() {
+                if (incremental)
+                        return footprints.validate(cellIndexLong(exit.r, exit.c));
+                if (walls != null)
+                        return validateStored();
+
                 boolean isValid = true;
                 int pathLength = 0;
                 int count = 0;
@@ -259,4 +917,75 @@ public class NormalMaze extends Maze {
                 return isValid;
         } // end of validate()
 
+
+        /**
+         * validate() for walls in the store.
+         * @return true if the recorded cells form a valid solution.
+         */
+        protected boolean validateStored() {
+                flushCellView();
+                boolean isValid = true;
+                int pathLength = 0;
+                int count = 0;
+
+                int stepCount[] = new int[sizeR * sizeC];
+                int queue[] = new int[sizeR * sizeC];
+                int head = 0;
+                int tail = 0;
+
+                int start = cellIndex(entrance.r, entrance.c);
+                queue[tail++] = start;
+                stepCount[start] = 1;
+
+                while (head < tail) {
+                        int cell = queue[head++];
+                        int r = cell / sizeC;
+                        int c = cell % sizeC + colShift(r);
+                        count++;
+                        int step = stepCount[cell];
+
+                        int peer = tunnelTarget(cell);
+                        if (peer >= 0 && isRecorded[peer / sizeC][peer % sizeC] && stepCount[peer] == 0) {
+                                stepCount[peer] = step + 1;
+                                queue[tail++] = peer;
+                        }
+
+                        for (int i = 0; i < Maze.NUM_DIR; i++) {
+                                long bit = wallBit(r, c, i);
+                                if (bit < 0 || !walls.get(bit))
+                                        continue;
+                                int next = cell + neighOffset[r & 1][i];
+                                if (isRecorded[next / sizeC][next % sizeC] && stepCount[next] == 0) {
+                                        stepCount[next] = step + 1;
+                                        queue[tail++] = next;
+                                }
+                        }
+                }
+
+                int end = cellIndex(exit.r, exit.c);
+                if (stepCount[end] == 0) {
+                        isValid = false;
+                        System.out.println("[Validation] Exit is not reached.");
+                }
+                else {
+                        pathLength = stepCount[end];
+                }
+
+                for (int i = 0; i < sizeR; i++){
+                        for (int j = 0; j < sizeC; j++) {
+                                if (isValid && isRecorded[i][j] && stepCount[i * sizeC + j] == 0) {
+                                        isValid = false;
+                                        System.out.println("[Validation] Visited cell not reachable.");
+                                }
+                        }
+                }
+
+                if (isValid) {
+                        System.out.println("[Validation] Number of cells visited = " + count);
+                        System.out.println("[Validation] Path length of the solution = " + pathLength);
+                }
+
+                return isValid;
+        } // end of validateStored()
+
 } // end of class NormalMaze
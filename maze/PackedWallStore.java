@@ -0,0 +1,73 @@
+package maze;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Wall store keeping its bits packed in a long[] on the heap.
+ *
+ * @author Zaid & Swapnil
+ *
+ */
+public class PackedWallStore extends WallStore {
+	/**
+	 * bit i of the store is bit (i % 64) of words[i / 64]
+	 */
+	protected long words[];
+
+	/**
+	 * access to the elements of words, for atomic updates
+	 */
+	protected static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+
+	public PackedWallStore(int rows, int cols, int slots) {
+		super(rows, cols, slots);
+		long numWords = (numBits() + 63) >>> 6;
+		if (numWords > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Maze of " + rows + " x " + cols + " cells is too large for a packed wall store.");
+		words = new long[(int) numWords];
+	} // end of PackedWallStore()
+
+
+	@Override
+	public boolean get(long bit) {
+		return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+	} // end of get()
+
+
+	@Override
+	public void set(long bit) {
+		words[(int) (bit >>> 6)] |= 1L << bit;
+	} // end of set()
+
+
+	@Override
+	public void setConcurrent(long bit) {
+		// atomic or, as the neighboring bits of the word may be set by another thread
+		WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), 1L << bit);
+	} // end of setConcurrent()
+
+
+	@Override
+	public void clear(long bit) {
+		words[(int) (bit >>> 6)] &= ~(1L << bit);
+	} // end of clear()
+
+
+	@Override
+	public void clearAll() {
+		Arrays.fill(words, 0L);
+	} // end of clearAll()
+
+
+	@Override
+	public long cardinality() {
+		long count = 0;
+		for (int i = 0; i < words.length; i++)
+			count += Long.bitCount(words[i]);
+		return count;
+	} // end of cardinality()
+
+} // end of class PackedWallStore
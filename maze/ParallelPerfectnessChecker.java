@@ -0,0 +1,209 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Union-find perfectness check running on row bands of the maze in a ForkJoinPool.
+ *
+ * @author Zaid & Swapnil
+ *
+ * The rows are split in halves until a band is small enough. A band unions the passages
+ * between its own cells, which touches only its own part of the union-find, so bands run in parallel.
+ * Once both halves are done, the passages crossing the boundary row between them are merged by their parent task.
+ * Tunnels are collected by the bands and merged at the end.
+ * MazeTester uses it with the option "perfectness parallel".
+ */
+public class ParallelPerfectnessChecker extends PerfectnessChecker {
+	/**
+	 * minimum number of cells of a band, smaller bands are not worth a task
+	 */
+	public final static int MIN_BAND_CELLS = 1 << 16;
+
+	protected ForkJoinPool pool;
+
+	/**
+	 * set when a loop is found, so that the other bands stop early
+	 */
+	protected volatile boolean failed;
+
+
+	public ParallelPerfectnessChecker() {
+		this(ForkJoinPool.commonPool());
+	} // end of ParallelPerfectnessChecker()
+
+
+	/**
+	 * @param pool Pool running the bands.
+	 */
+	public ParallelPerfectnessChecker(ForkJoinPool pool) {
+		this.pool = pool;
+	} // end of ParallelPerfectnessChecker()
+
+
+	@Override
+	public boolean check(Maze maze) {
+		this.maze = maze;
+		int numCells = maze.cellCount();
+		sets.resize(numCells);
+		result = PERFECT;
+		problemCell = -1;
+		problemDir = -1;
+		failed = false;
+
+		// a few bands per thread, for load balancing
+		int bandRows = Math.max(MIN_BAND_CELLS / maze.sizeC, maze.sizeR / (4 * pool.getParallelism()));
+		bandRows = Math.max(1, bandRows);
+		Band all = new Band(0, maze.sizeR, bandRows);
+		pool.invoke(all);
+		if (failed)
+			return false;
+
+		long passages = all.passages;
+		for (int i = 0; i < all.numTunnels; i++) {
+			int cell = all.tunnels[i];
+			passages++;
+			if (!sets.union(cell, maze.tunnelTarget(cell)))
+				return fail(LOOP, cell, -1);
+		}
+
+		// without loops, a maze with fewer passages is a forest of several trees
+		if (passages != numCells - 1) {
+			pool.invoke(new Disconnected(0, numCells, sets.find(0), bandRows * maze.sizeC));
+			return false;
+		}
+		return true;
+	} // end of check()
+
+
+	@Override
+	protected synchronized boolean fail(int result, long cell, int dir) {
+		if (this.result == PERFECT)
+			super.fail(result, cell, dir);
+		failed = true;
+		return false;
+	} // end of fail()
+
+
+	/**
+	 * Task for the rows [lo, hi).
+	 */
+	@SuppressWarnings("serial")
+	protected class Band extends RecursiveAction {
+		protected int lo, hi, bandRows;
+		/**
+		 * passages inside the band, including the boundary rows merged
+		 */
+		protected long passages = 0;
+		/**
+		 * cells of the band whose tunnel leads to a higher index
+		 */
+		protected int tunnels[] = new int[0];
+		protected int numTunnels = 0;
+
+		protected Band(int lo, int hi, int bandRows) {
+			this.lo = lo;
+			this.hi = hi;
+			this.bandRows = bandRows;
+		} // end of Band()
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= bandRows) {
+				unionBand();
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			Band left = new Band(lo, mid, bandRows);
+			Band right = new Band(mid, hi, bandRows);
+			invokeAll(left, right);
+			passages = left.passages + right.passages;
+			numTunnels = left.numTunnels + right.numTunnels;
+			tunnels = Arrays.copyOf(left.tunnels, numTunnels);
+			System.arraycopy(right.tunnels, 0, tunnels, left.numTunnels, right.numTunnels);
+			if (!failed)
+				mergeRow(mid - 1);
+		} // end of compute()
+
+		/**
+		 * Union the passages between cells of the band.
+		 */
+		protected void unionBand() {
+			int first = lo * maze.sizeC;
+			int end = hi * maze.sizeC;
+			// the last row keeps its passages to the next band for the merge
+			int lastRow = (hi - 1) * maze.sizeC;
+			for (int cell = first; cell < end; cell++)
+				sets.makeSet(cell);
+			for (int cell = first; cell < end; cell++) {
+				if (cell % maze.sizeC == 0 && failed)
+					return;
+				for (int dir = 0; dir < 3; dir++) {
+					if (dir > 0 && cell >= lastRow)
+						break;
+					if (!maze.isOpen(cell, dir))
+						continue;
+					passages++;
+					if (!sets.union(cell, maze.neighbor(cell, dir))) {
+						fail(LOOP, cell, dir);
+						return;
+					}
+				}
+				if (maze.tunnelTarget(cell) > cell) {
+					if (numTunnels == tunnels.length)
+						tunnels = Arrays.copyOf(tunnels, 2 * numTunnels + 1);
+					tunnels[numTunnels++] = cell;
+				}
+			}
+		} // end of unionBand()
+
+		/**
+		 * Union the passages from row r to row r + 1.
+		 */
+		protected void mergeRow(int r) {
+			int end = (r + 1) * maze.sizeC;
+			for (int cell = r * maze.sizeC; cell < end; cell++)
+				for (int dir = 1; dir < 3; dir++) {
+					if (!maze.isOpen(cell, dir))
+						continue;
+					passages++;
+					if (!sets.union(cell, maze.neighbor(cell, dir))) {
+						fail(LOOP, cell, dir);
+						return;
+					}
+				}
+		} // end of mergeRow()
+	} // end of class Band
+
+
+	/**
+	 * Task looking for a cell in [lo, hi) which is not in the set of root.
+	 */
+	@SuppressWarnings("serial")
+	protected class Disconnected extends RecursiveAction {
+		protected int lo, hi, root, bandCells;
+
+		protected Disconnected(int lo, int hi, int root, int bandCells) {
+			this.lo = lo;
+			this.hi = hi;
+			this.root = root;
+			this.bandCells = bandCells;
+		} // end of Disconnected()
+
+		@Override
+		protected void compute() {
+			if (hi - lo > bandCells) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Disconnected(lo, mid, root, bandCells), new Disconnected(mid, hi, root, bandCells));
+				return;
+			}
+			for (int cell = lo; cell < hi && !failed; cell++) {
+				// no path halving, other tasks read the same parents
+				if (sets.root(cell) != root)
+					fail(DISCONNECTED, cell, -1);
+			}
+		} // end of compute()
+	} // end of class Disconnected
+
+} // end of class ParallelPerfectnessChecker
@@ -0,0 +1,116 @@
+package maze;
+
+/**
+ * Check whether a maze is perfect with a union-find over the cell indices.
+ *
+ * @author Zaid & Swapnil
+ *
+ * A maze is perfect if and only if it has no loop and exactly cellCount() - 1 passages,
+ * tunnels included. Every passage is a union of two sets, so the first passage joining
+ * two cells already in the same set closes a loop and the check stops there.
+ * The only allocation is the union-find, which is kept for mazes of the same size.
+ */
+public class PerfectnessChecker {
+	/**
+	 * results of the last check
+	 */
+	public final static int PERFECT = 0;
+	public final static int LOOP = 1;
+	public final static int DISCONNECTED = 2;
+
+	/**
+	 * sets of the cells joined by the passages seen so far
+	 */
+	protected UnionFind sets = new UnionFind();
+
+	/**
+	 * result of the last check
+	 */
+	public int result = PERFECT;
+
+	/**
+	 * cell where the problem was found: the cell whose passage closes a loop,
+	 * or a cell not connected to cell 0
+	 */
+	public long problemCell = -1;
+
+	/**
+	 * direction of the passage closing a loop, -1 if it is a tunnel
+	 */
+	public int problemDir = -1;
+
+	/**
+	 * maze of the last check, used for the report
+	 */
+	protected Maze maze;
+
+
+	/**
+	 * Check the maze.
+	 * @param maze The maze to check.
+	 * @return True if it is perfect, i.e. every cell can be visited and there is no loop.
+	 */
+	public boolean check(Maze maze) {
+		this.maze = maze;
+		int numCells = maze.cellCount();
+		sets.reset(numCells);
+		result = PERFECT;
+		problemCell = -1;
+		problemDir = -1;
+
+		long passages = 0;
+		for (int cell = 0; cell < numCells; cell++) {
+			// east, northeast and north(west) lead to higher indices, so each passage is seen once
+			for (int dir = 0; dir < 3; dir++) {
+				if (!maze.isOpen(cell, dir))
+					continue;
+				passages++;
+				if (!sets.union(cell, maze.neighbor(cell, dir)))
+					return fail(LOOP, cell, dir);
+			}
+			int other = maze.tunnelTarget(cell);
+			if (other > cell) {
+				passages++;
+				if (!sets.union(cell, other))
+					return fail(LOOP, cell, -1);
+			}
+		}
+
+		// without loops, a maze with fewer passages is a forest of several trees
+		if (passages != numCells - 1) {
+			int root = sets.find(0);
+			for (int cell = 1; cell < numCells; cell++)
+				if (sets.find(cell) != root)
+					return fail(DISCONNECTED, cell, -1);
+		}
+		return true;
+	} // end of check()
+
+
+	/**
+	 * Record the problem found.
+	 * @return false
+	 */
+	protected boolean fail(int result, long cell, int dir) {
+		this.result = result;
+		problemCell = cell;
+		problemDir = dir;
+		return false;
+	} // end of fail()
+
+
+	/**
+	 * @return Description of the result of the last check.
+	 */
+	public String report() {
+		if (result == PERFECT)
+			return "The maze is perfect.";
+		String cell = "cell (" + maze.cellRow(problemCell) + ", " + maze.cellCol(problemCell) + ")";
+		if (result == DISCONNECTED)
+			return cell + " is not connected to cell (" + maze.cellRow(0) + ", " + maze.cellCol(0) + ").";
+		if (problemDir < 0)
+			return "The tunnel of " + cell + " closes a loop.";
+		return "The passage on direction " + problemDir + " of " + cell + " closes a loop.";
+	} // end of report()
+
+} // end of class PerfectnessChecker
@@ -0,0 +1,65 @@
+package maze;
+
+/**
+ * Packed wall store laying its bits out in square tiles of TILE x TILE cells,
+ * so that walks moving between nearby rows stay within a few cache lines.
+ *
+ * @author Zaid & Swapnil
+ *
+ * Tiles are stored row by row, and the cells inside a tile either row by row or in Morton (Z) order.
+ * A tile of a rectangular maze takes 1KB, so a 3 x 3 block of tiles around a walk fits in L1.
+ * Partial tiles on the north and east sides are padded and their extra bits never used.
+ */
+public class TiledWallStore extends PackedWallStore {
+	/**
+	 * tile side, in cells
+	 */
+	public final static int TILE_SHIFT = 6;
+	public final static int TILE = 1 << TILE_SHIFT;
+
+	/**
+	 * SPREAD[x] has bit i of x at bit 2i, used to interleave rows and columns in Morton order
+	 */
+	protected final static int SPREAD[] = new int[TILE];
+	static {
+		for (int x = 0; x < TILE; x++)
+			for (int i = 0; i < TILE_SHIFT; i++)
+				SPREAD[x] |= (x >> i & 1) << (2 * i);
+	}
+
+	/**
+	 * number of tiles in a row of tiles
+	 */
+	protected final int tileCols;
+
+	/**
+	 * true for Morton order inside a tile, false for row by row
+	 */
+	public final boolean morton;
+
+
+	public TiledWallStore(int rows, int cols, int slots, boolean morton) {
+		super(rows, cols, slots);
+		this.tileCols = (cols + TILE - 1) >> TILE_SHIFT;
+		this.morton = morton;
+	} // end of TiledWallStore()
+
+
+	@Override
+	public long bit(int r, int c, int slot) {
+		long tile = (long) (r >> TILE_SHIFT) * tileCols + (c >> TILE_SHIFT);
+		int tr = r & (TILE - 1);
+		int tc = c & (TILE - 1);
+		int inTile = morton ? SPREAD[tc] | SPREAD[tr] << 1 : tr << TILE_SHIFT | tc;
+		return ((tile << (2 * TILE_SHIFT)) + inTile) * slots + slot;
+	} // end of bit()
+
+
+	@Override
+	public long numBits() {
+		// called by the constructor of PackedWallStore, before the fields of this class are set
+		long numTiles = (long) ((rows + TILE - 1) >> TILE_SHIFT) * ((cols + TILE - 1) >> TILE_SHIFT);
+		return (numTiles << (2 * TILE_SHIFT)) * slots;
+	} // end of numBits()
+
+} // end of class TiledWallStore
@@ -14,55 +14,72 @@ public class TunnelMaze extends NormalMaze {
 		type = TUNNEL;
 	} // end of TunnelMaze()
 
+	/**
+	 * Tunnel ends as cell indices r * sizeC + c, sorted by tunnelFrom. 
+	 * Each tunnel is listed in both directions.
+	 */
+	protected long tunnelFrom[];
+	protected long tunnelTo[];
+
 	@Override
-	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
-		super.initMaze(rs, cs, entR, entC, exitR, exitC, tunnelList);
+	protected void setUp(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
+		long ends[][] = new long[2 * tunnelList.size()][];
 		for (int i = 0; i < tunnelList.size(); i++) {
-			map[tunnelList.get(i)[0]][tunnelList.get(i)[1]].tunnelTo = map[tunnelList.get(i)[2]][tunnelList.get(i)[3]];
-			map[tunnelList.get(i)[2]][tunnelList.get(i)[3]].tunnelTo = map[tunnelList.get(i)[0]][tunnelList.get(i)[1]];
+			int t[] = tunnelList.get(i);
+			long p1 = (long) t[0] * cs + t[1];
+			long p2 = (long) t[2] * cs + t[3];
+			ends[2 * i] = new long[] {p1, p2};
+			ends[2 * i + 1] = new long[] {p2, p1};
 		}
-	} // end of initMaze()
-	
-	@Override
-	public boolean isPerfect() {
-		boolean visited[][] = new boolean[sizeR][sizeC];
-		Queue<Cell> queue = new LinkedList<Cell>();
-		
-		queue.add(entrance);
-		
-		while (!queue.isEmpty()) {
-			Cell cell = queue.poll();
-			Cell next = null;
-			visited[cell.r][cell.c] = true;
-			int visitedNeigh = 0;
-			if (cell.tunnelTo != null) {
-				next = cell.tunnelTo;
-				if (visited[next.r][next.c])
-					visitedNeigh += 1; 
-				else
-					queue.add(next);
-			}
-			for (int i = 0; i < NUM_DIR; i++) {
-				next = cell.neigh[i];
-				if (!isIn(next) || cell.wall[i].present)
-					continue;
-				if (visited[next.r][next.c])
-					visitedNeigh += 1; 
-				else
-					queue.add(next);
-			}
-			
-			if (visitedNeigh > 1)
-				return false;
+		Arrays.sort(ends, (a, b) -> Long.compare(a[0], b[0]));
+		tunnelFrom = new long[ends.length];
+		tunnelTo = new long[ends.length];
+		for (int i = 0; i < ends.length; i++) {
+			tunnelFrom[i] = ends[i][0];
+			tunnelTo[i] = ends[i][1];
 		}
-		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				if (!visited[i][j])
-					return false;
-		
-		return true;
-	} // end of isPerfect()
+
+		super.setUp(rs, cs, entR, entC, exitR, exitC, tunnelList);
+	} // end of setUp()
+
+
+	@Override
+	protected void buildCells() {
+		super.buildCells();
+		linkTunnels(true);
+	} // end of buildCells()
+
+
+	@Override
+	protected void linkTunnels(boolean isLinked) {
+		for (int i = 0; i < tunnelFrom.length; i++)
+			map[cellRow(tunnelFrom[i])][cellCol(tunnelFrom[i])].tunnelTo = isLinked ? map[cellRow(tunnelTo[i])][cellCol(tunnelTo[i])] : null;
+	} // end of linkTunnels()
+
+
+	@Override
+	public int tunnelTarget(int cell) {
+		return (int) tunnelTarget((long) cell);
+	} // end of tunnelTarget()
+
+
+	@Override
+	public long tunnelTarget(long cell) {
+		int i = Arrays.binarySearch(tunnelFrom, cell);
+		return i < 0 ? -1 : tunnelTo[i];
+	} // end of tunnelTarget()
+
+
+	@Override
+	public int tunnelEndCount() {
+		return tunnelFrom.length;
+	} // end of tunnelEndCount()
+
+
+	@Override
+	public long tunnelEnd(int i) {
+		return tunnelFrom[i];
+	} // end of tunnelEnd()
 	
 	@Override
 	public void draw() {
@@ -76,6 +93,11 @@ public class TunnelMaze extends NormalMaze {
 		
 		// draw the maze
 		super.draw();
+
+		if (walls != null) {
+			drawStoredTunnels(colors);
+			return;
+		}
 		
 		List<Cell> drawnTunnels = new ArrayList<Cell>();
 		
@@ -106,8 +128,40 @@ public class TunnelMaze extends NormalMaze {
 	} // end of draw()
 
 
+	/**
+	 * Draw the tunnels when walls are in the store.
+	 * @param colors Colors used for tunnels in turn.
+	 */
+	protected void drawStoredTunnels(Color[] colors) {
+		int numTunnelDrawn = 0;
+		for (int i = 0; i < tunnelFrom.length; i++) {
+			// each tunnel is listed twice, draw it from its smaller end
+			if (tunnelFrom[i] > tunnelTo[i])
+				continue;
+			StdDraw.setPenColor(colors[numTunnelDrawn % colors.length]);
+			StdDraw.setPenRadius(0.005);
+			long ends[] = {tunnelFrom[i], tunnelTo[i]};
+			for (long end : ends) {
+				int r = cellRow(end);
+				int c = cellCol(end);
+				StdDraw.line(c+0.9, r+0.1, c+0.9, r+0.9);
+				StdDraw.line(c+0.1, r+0.9, c+0.9, r+0.9);
+				StdDraw.line(c+0.1, r+0.1, c+0.1, r+0.9);
+				StdDraw.line(c+0.1, r+0.1, c+0.9, r+0.1);
+			}
+			StdDraw.setPenRadius();
+			numTunnelDrawn++;
+		}
+	} // end of drawStoredTunnels()
+
+
         @Override
         public boolean validate() {
+                if (incremental)
+                        return footprints.validate(cellIndexLong(exit.r, exit.c));
+                if (walls != null)
+                        return validateStored();
+
                 boolean isValid = true;
                 int pathLength = 0;
                 int count = 0;
@@ -0,0 +1,105 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Union-find over the ints from 0 to size() - 1, with path halving and union by size.
+ *
+ * @author Zaid & Swapnil
+ *
+ * A single int array holds the parent of every element, or minus the size of the set of a root,
+ * and is kept as long as the size does not change. Elements may be made sets of their own one at a time
+ * with makeSet(), e.g. for a union-find reused from row to row.
+ */
+public class UnionFind {
+	/**
+	 * parent[i] is the parent of i, or minus the size of the set if i is a root
+	 */
+	protected int parent[] = new int[0];
+
+
+	/**
+	 * Make every int from 0 to size - 1 a set of its own.
+	 * @param size Number of elements.
+	 */
+	public void reset(int size) {
+		resize(size);
+		Arrays.fill(parent, -1);
+	} // end of reset()
+
+
+	/**
+	 * Give room for size elements, keeping the array if it has that size. The elements are left as they are,
+	 * to be made sets with makeSet() before use.
+	 * @param size Number of elements.
+	 */
+	public void resize(int size) {
+		if (parent.length != size)
+			parent = new int[size];
+	} // end of resize()
+
+
+	/**
+	 * @return Number of elements.
+	 */
+	public int size() {
+		return parent.length;
+	} // end of size()
+
+
+	/**
+	 * Make an element a set of its own, whatever set it was in.
+	 * @param i Element.
+	 */
+	public void makeSet(int i) {
+		parent[i] = -1;
+	} // end of makeSet()
+
+
+	/**
+	 * @param i Element.
+	 * @return Root of the set of the element, halving the path on the way.
+	 */
+	public int find(int i) {
+		while (parent[i] >= 0) {
+			int next = parent[i];
+			if (parent[next] >= 0)
+				parent[i] = parent[next];
+			i = next;
+		}
+		return i;
+	} // end of find()
+
+
+	/**
+	 * Root of the set of an element without changing the parents, for threads reading the sets at the same time.
+	 * @param i Element.
+	 * @return Root of the set of the element.
+	 */
+	public int root(int i) {
+		while (parent[i] >= 0)
+			i = parent[i];
+		return i;
+	} // end of root()
+
+
+	/**
+	 * Join the sets of two elements, the smaller under the larger.
+	 * @return False if the elements are already in the same set.
+	 */
+	public boolean union(int a, int b) {
+		a = find(a);
+		b = find(b);
+		if (a == b)
+			return false;
+		if (parent[a] > parent[b]) {
+			int temp = a;
+			a = b;
+			b = temp;
+		}
+		parent[a] += parent[b];
+		parent[b] = a;
+		return true;
+	} // end of union()
+
+} // end of class UnionFind
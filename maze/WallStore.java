@@ -0,0 +1,106 @@
+package maze;
+
+/**
+ * Storage of the walls of a maze as one bit per wall.
+ *
+ * @author Zaid & Swapnil
+ *
+ * Every cell owns a fixed number of slots, one for each wall it shares with a neighbor
+ * on its east/north side (two for a rectangular maze, three for a hexagon maze),
+ * so a wall shared by two cells is a single bit.
+ * A set bit means the wall has been removed, hence a new store describes an all-wall maze.
+ */
+public abstract class WallStore {
+	/**
+	 * number of rows of cells
+	 */
+	public final int rows;
+
+	/**
+	 * number of cells in a row
+	 */
+	public final int cols;
+
+	/**
+	 * number of wall slots owned by each cell
+	 */
+	public final int slots;
+
+
+	/**
+	 * construct the geometry of a store of rows * cols cells with slots walls each
+	 * @param rows Number of rows of cells.
+	 * @param cols Number of cells in a row.
+	 * @param slots Number of wall slots owned by each cell.
+	 */
+	public WallStore(int rows, int cols, int slots) {
+		this.rows = rows;
+		this.cols = cols;
+		this.slots = slots;
+	} // end of WallStore()
+
+
+	/**
+	 * Index of the bit for a wall slot of cell (r, c).
+	 * @param r Row of the cell in the store.
+	 * @param c Column of the cell in the store.
+	 * @param slot Wall slot of the cell.
+	 * @return Index of the bit.
+	 */
+	public long bit(int r, int c, int slot) {
+		return ((long) r * cols + c) * slots + slot;
+	} // end of bit()
+
+
+	/**
+	 * @return Total number of bits held by the store.
+	 */
+	public long numBits() {
+		return (long) rows * cols * slots;
+	} // end of numBits()
+
+
+	/**
+	 * @param bit Index of the bit.
+	 * @return True if the wall has been removed. Otherwise false.
+	 */
+	public abstract boolean get(long bit);
+
+	/**
+	 * Remove the wall, i.e. set the bit.
+	 * @param bit Index of the bit.
+	 */
+	public abstract void set(long bit);
+
+	/**
+	 * Remove the wall, i.e. set the bit, while other threads may set bits of the same store.
+	 * @param bit Index of the bit.
+	 */
+	public synchronized void setConcurrent(long bit) {
+		set(bit);
+	} // end of setConcurrent()
+
+	/**
+	 * Put the wall back, i.e. clear the bit.
+	 * @param bit Index of the bit.
+	 */
+	public abstract void clear(long bit);
+
+	/**
+	 * Put every wall back, i.e. clear all bits.
+	 */
+	public abstract void clearAll();
+
+	/**
+	 * @return Number of removed walls.
+	 */
+	public abstract long cardinality();
+
+	/**
+	 * @return True if the bits cannot be changed.
+	 */
+	public boolean isReadOnly() {
+		return false;
+	} // end of isReadOnly()
+
+} // end of class WallStore
@@ -0,0 +1,47 @@
+package mazeGenerator;
+
+import java.util.SplittableRandom;
+
+import maze.Maze;
+
+
+/**
+ * This class is part of mazeGenerator package which extends RowParallelGenerator.
+ * And is used to implement Binary Tree Algorithm.
+ * @author Zaid & Swapnil
+ *
+ * Every cell removes its east or north wall at random, so every row is generated on its own.
+ * A hex cell removes its east or northeast wall (northwest on the east edge of odd rows).
+ */
+
+public class BinaryTreeGenerator extends RowParallelGenerator {
+
+	/**
+	 * carveRow method generate a row using Binary Tree technique.
+	 * ******************************************************************************************
+	 * 1: For every cell of the row
+	 * 1.1   If it is on the last row, remove the east wall
+	 * 1.2   If it is on the east edge, remove the wall to the next row
+	 * 1.3   Otherwise remove one of them at random
+	 * ******************************************************************************************
+	 * @param maze
+	 * @param r Index of the row.
+	 * @param random Random number generator of the block of the row.
+	 */
+	@Override
+	protected void carveRow(Maze maze, int r, SplittableRandom random) {
+		long first = (long) r * maze.sizeC;
+		boolean lastRow = r == maze.sizeR - 1;
+		for (int c = 0; c < maze.sizeC; c++) {
+			boolean lastCol = c == maze.sizeC - 1;
+			// the north-east cell is the root of the tree
+			if (lastRow && lastCol)
+				continue;
+			if (lastRow || !lastCol && random.nextBoolean())
+				maze.carveConcurrent(first + c, Maze.EAST);
+			else
+				maze.carveConcurrent(first + c, upDir(maze, r, c));
+		}
+	} // end of carveRow()
+
+} // end of class BinaryTreeGenerator
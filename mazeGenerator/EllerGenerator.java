@@ -0,0 +1,209 @@
+package mazeGenerator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import maze.Maze;
+import maze.UnionFind;
+
+
+/**
+ * This class is part of mazeGenerator package which implements MazeGenerator interface.
+ * And is used to implement Eller's Algorithm.
+ * @author Zaid & Swapnil
+ *
+ * The maze is generated one row at a time, keeping only the sets of the cells of the current row
+ * in a union-find, so memory is linear in the width whatever the number of rows.
+ * Every finished row is given to a RowSink, which carves it into a Maze for generateMaze()
+ * or streams it anywhere else for generateRows().
+ * A tunnel maze goes through generateAroundTunnels(), which generates a whole maze without tunnels first:
+ * it loses the streaming and the memory linear in the width.
+ */
+
+public class EllerGenerator implements MazeGenerator {
+
+	/** randomCell object to pick the passages*/
+	SplittableRandom randomCell  = new SplittableRandom();
+	/** set[c] is the set id of the cell in column c of the current row, from 0 to cols - 1*/
+	int set[] = new int[0];
+	/** union-find over the set ids, cols to 2 * cols - 1 for the cells of the next row*/
+	UnionFind sets = new UnionFind();
+	/** rowRoot[c] is the root of the set of column c before any passage to the next row is carved*/
+	int rowRoot[] = new int[0];
+	/** per rowRoot: number of cells of the set not handled yet, whether the set has a passage to the next row*/
+	int count[] = new int[0];
+	boolean down[] = new boolean[0];
+	/** new set id of a root, -1 if not given yet*/
+	int remap[] = new int[0];
+	/** removed walls of the current row*/
+	BitSet open = new BitSet();
+
+
+	@Override
+	public void setSeed(long seed) {
+		randomCell = new SplittableRandom(seed);
+	} // end of setSeed()
+
+
+	/* (non-Javadoc)
+	 * @see mazeGenerator.MazeGenerator#generateMaze(maze.Maze)
+	 *  /**
+	 *
+	 * ******************************************************************************************
+	 * 1: Call generateRows() with a sink carving every row into the maze.
+	 * For a tunnel maze, call generateAroundTunnels() instead.
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void generateMaze(Maze maze) {
+		if (maze.type == Maze.TUNNEL) {
+			generateAroundTunnels(maze);
+			return;
+		}
+
+		generateRows(maze.type, maze.sizeR, maze.sizeC, (r, open) -> carveRow(maze, (int) r, open));
+	} // end of generateMaze()
+
+
+	/**
+	 * Carve the removed walls of a row into the maze.
+	 * @param maze
+	 * @param r Index of the row.
+	 * @param open Removed walls of the row, as given to RowSink.
+	 */
+	void carveRow(Maze maze, int r, BitSet open) {
+		// hexagon columns to map columns
+		int shift = maze.type == Maze.HEX ? (r + 1) / 2 : 0;
+		for (int i = open.nextSetBit(0); i >= 0; i = open.nextSetBit(i + 1))
+			maze.carve(maze.cellIndexLong(r, i / 3 + shift), i % 3);
+	} // end of carveRow()
+
+
+	/**
+	 * generateRows method generate a maze row by row using Eller's technique.
+	 * ******************************************************************************************
+	 * 1: Put every cell of the first row in its own set.
+	 * 2: For every row
+	 * 2.1   For every pair of adjacent cells in different sets, at random (always on the last row)
+	 *    2.1.1 Remove the wall in between and join their sets
+	 * 2.2   If it is not the last row
+	 *    2.2.1 Put every cell of the next row in its own set
+	 *    2.2.2 At random, remove walls to the next row and join the sets, at least one per set
+	 *    2.2.3 Renumber the sets of the next row
+	 * 2.3   Give the row to the sink
+	 * ******************************************************************************************
+	 * @param type Maze.NORMAL or Maze.HEX.
+	 * @param rows Number of rows.
+	 * @param cols Number of columns.
+	 * @param sink Receiver of the rows.
+	 */
+	public void generateRows(int type, long rows, int cols, RowSink sink) {
+		if (type != Maze.NORMAL && type != Maze.HEX)
+			throw new IllegalArgumentException("Invalid Maze Type.");
+		if (rows < 1 || cols < 1)
+			throw new IllegalArgumentException("Invalid maze size " + rows + " x " + cols + ".");
+		if (set.length != cols) {
+			set = new int[cols];
+			rowRoot = new int[cols];
+			sets.resize(2 * cols);
+			count = new int[cols];
+			down = new boolean[cols];
+			remap = new int[2 * cols];
+		}
+		for (int c = 0; c < cols; c++) {
+			set[c] = c;
+			sets.makeSet(c);
+		}
+
+		for (long r = 0; r < rows; r++) {
+			open.clear();
+			boolean last = r == rows - 1;
+
+			// join adjacent cells of the row
+			for (int c = 0; c + 1 < cols; c++) {
+				if ((last || randomCell.nextBoolean()) && sets.union(set[c], set[c + 1]))
+					open.set(3 * c + Maze.EAST);
+			}
+
+			if (!last) {
+				// sets of the row are rooted at ids below cols, the ids of the next row are above
+				Arrays.fill(count, 0);
+				Arrays.fill(down, false);
+				for (int c = 0; c < cols; c++) {
+					rowRoot[c] = sets.find(set[c]);
+					count[rowRoot[c]]++;
+					sets.makeSet(cols + c);
+				}
+
+				for (int c = 0; c < cols; c++) {
+					int root = rowRoot[c];
+					// the last cell of a set still without passage must go up
+					boolean force = --count[root] == 0 && !down[root];
+					if (type == Maze.HEX)
+						down[root] |= goUpHex(r, c, cols, force);
+					else if (force || randomCell.nextBoolean()) {
+						// the cell above is in its own set, no loop is possible
+						sets.union(set[c], cols + c);
+						open.set(3 * c + Maze.NORTH);
+						down[root] = true;
+					}
+				}
+
+				// renumber the sets of the next row from 0, then start a new union-find
+				Arrays.fill(remap, -1);
+				int numIds = 0;
+				for (int c = 0; c < cols; c++) {
+					int root = sets.find(cols + c);
+					if (remap[root] < 0)
+						remap[root] = numIds++;
+					set[c] = remap[root];
+				}
+				for (int c = 0; c < cols; c++)
+					sets.makeSet(c);
+			}
+
+			sink.acceptRow(r, open);
+		}
+	} // end of generateRows()
+
+
+	/**
+	 * Remove the walls from a cell of a hex row to the next row, each one with probability 1/3.
+	 * ******************************************************************************************
+	 * 1: For the northeast and northwest neighbors of the cell in the next row
+	 * 1.1   At random, if they are in different sets, remove the wall in between and join their sets
+	 * 2: If forced and no wall was removed, remove the wall to a random neighbor
+	 * ******************************************************************************************
+	 * @param r Index of the row.
+	 * @param c Hexagon column of the cell.
+	 * @param cols Number of columns.
+	 * @param force Whether at least one wall must be removed.
+	 * @return Whether a wall was removed.
+	 */
+	boolean goUpHex(long r, int c, int cols, boolean force) {
+		// neighbors in the next row: c - 1 and c from an even row, c and c + 1 from an odd row
+		int northWest = r % 2 == 0 ? c - 1 : c;
+		int northEast = northWest + 1;
+		boolean hasNW = northWest >= 0;
+		boolean hasNE = northEast < cols;
+		boolean removed = false;
+		if (hasNE && randomCell.nextInt(3) == 0 && sets.union(set[c], cols + northEast)) {
+			open.set(3 * c + Maze.NORTHEAST);
+			removed = true;
+		}
+		if (hasNW && randomCell.nextInt(3) == 0 && sets.union(set[c], cols + northWest)) {
+			open.set(3 * c + Maze.NORTHWEST);
+			removed = true;
+		}
+		if (force && !removed) {
+			// no cell of the set went up, so the next row has no cell of the set yet
+			boolean east = hasNE && (!hasNW || randomCell.nextBoolean());
+			sets.union(set[c], cols + (east ? northEast : northWest));
+			open.set(3 * c + (east ? Maze.NORTHEAST : Maze.NORTHWEST));
+			removed = true;
+		}
+		return removed;
+	} // end of goUpHex()
+
+} // end of class EllerGenerator
@@ -3,170 +3,195 @@ package mazeGenerator;
 import java.util.*;
 
 import maze.Maze;
-import maze.Cell;
+import maze.MazeGraph;
 
 /**
  * This class is part of mazeGenerator package which implements MazeGenerator interface.
- * And is used to implement Growing Tree Algorithm.  
+ * And is used to implement Growing Tree Algorithm.
  * @author Zaid & Swapnil
  *
+ * The active nodes of the MazeGraph are kept in an int array in the order they were added, so the newest is at the end
+ * and the oldest at the beginning. A node removed from the middle is marked -1 and skipped,
+ * and the array is compacted once half of it is marked, so every selection policy takes constant amortized time.
  */
 
 public class GrowingTreeGenerator implements MazeGenerator {
-	// Growing tree maze generator. As it is very general, here we implement as "usually pick the most recent cell, but occasionally pick a random cell"
-
-	double threshold = 0.1;
-	Cell selectedCell;
-	Cell frontierCell;
-	/** unVisited ArrayList is use to store unVisited Cell*/
-	ArrayList<Cell> unVisited = new ArrayList<Cell>();
+	// Growing tree maze generator. As it is very general, the cell grown is picked by a policy,
+	// by default "usually pick the most recent cell, but occasionally pick a random cell"
+
+	/** selection policies: newest cell (recursive backtracker), oldest cell, random cell (Prim like), or mixed*/
+	public final static int NEWEST = 0;
+	public final static int OLDEST = 1;
+	public final static int RANDOM = 2;
+	public final static int MIXED = 3;
+
+	/** selection policy of the cell grown*/
+	public int policy = MIXED;
+	/** with MIXED policy, probability of picking a random cell instead of the newest*/
+	public double threshold = 0.1;
 	/** Set of Visited Cell*/
-	Set<Cell> visited = new HashSet<Cell>();
+	BitSet visited = new BitSet();
+	/** active Cell in active[head] to active[tail - 1] from oldest to newest, -1 for a removed Cell*/
+	int active[] = new int[0];
+	int head;
+	int tail;
+	int numActive;
+	/** edge slots to the unVisited neighbors of selectedCell, up to six from each end of a tunnel*/
+	int edges[] = new int[2 * Maze.NUM_DIR];
 	/** randomCell object to select randomCell*/
-	Random randomCell  = new Random();
+	SplittableRandom randomCell  = new SplittableRandom();
+
+
+	public GrowingTreeGenerator() {
+	} // end of GrowingTreeGenerator()
+
+
+	/**
+	 * @param policy Selection policy, one of NEWEST, OLDEST, RANDOM and MIXED.
+	 * @param threshold With MIXED policy, probability of picking a random cell instead of the newest.
+	 */
+	public GrowingTreeGenerator(int policy, double threshold) {
+		this.policy = policy;
+		this.threshold = threshold;
+	} // end of GrowingTreeGenerator()
+
+
+	@Override
+	public void setSeed(long seed) {
+		randomCell = new SplittableRandom(seed);
+	} // end of setSeed()
 
 
 	/* (non-Javadoc)
 	 * @see mazeGenerator.MazeGenerator#generateMaze(maze.Maze)
-	 *  /** 
-	 * 
+	 *  /**
+	 *
 	 * ******************************************************************************************
-	 * 1: Populate the unVisited ArrayList depending upon the maze type using Switch statement.
+	 * 1: Reset the visited set and the active cells, reusing their array for mazes of the same size,
+	 *    and mark the cells which are not nodes as visited.
 	 * 2: Call buildMaze() method to generate maze.
 	 * ******************************************************************************************
 	 */
 	@Override
 	public void generateMaze(Maze maze) {
-		switch (maze.type) {
-		//Maze type normal
-		case 0:
-			normalArrayList(maze);	
-			break;
-			//Maze type hex
-		case 2:
-			hexArrayList(maze);
-			break;
-		default:
-			System.err.println("Invalid Maze Type.");		
-		}
+		MazeGraph graph = maze.graph();
+		// every node is added once
+		if (active.length != graph.numNodes)
+			active = new int[graph.numNodes];
+		head = 0;
+		tail = 0;
+		numActive = 0;
+		visited.clear();
+		graph.markNonNodes(visited);
+
 		//Start of buildMaze method
-		buildMaze(maze);	
+		buildMaze(maze);
 	}// end of generateMaze()
 
 
 	/**
+	 * buildMaze method generate the required maze using Growing Tree technique.
 	 * ******************************************************************************************
-	 * 1: Populate the unVisited ArrayList with all the Cell in the hex maze.
+	 * 1: Select a random cell of the maze.
+	 * 2: Add selectedCell to visited set and active cells.
+	 * 3: While active cell exist
+	 * 3.1   Pick an active cell according to the policy
+	 * 3.2   If unVisited neighbors of selectedCell exist
+	 *    3.2.1 Pick one of them at random
+	 *    3.2.2 Remove the wall in between
+	 *    3.2.3 Add neighboring cell to visited set and active cells
+	 * 3.3   If no unVisited neighbor exist
+	 *    3.3.1 Remove the selectedCell from active cells
 	 * ******************************************************************************************
 	 * @param maze
-	 * @return unVisited ArrayList of Cell in hex maze
 	 */
-	public ArrayList<Cell> hexArrayList(Maze maze) {
-		for (int i = 0; i < maze.sizeR; i++){
-			for (int j = (i + 1) / 2; j < maze.sizeC + (i + 1) / 2; j++) {
-
-				selectedCell = maze.map[i][j];
-				unVisited.add(selectedCell);
+	public void buildMaze(Maze maze)	{
+		MazeGraph graph = maze.graph();
+		//select random cell of the maze
+		int selectedCell = graph.node(randomCell.nextInt(graph.numCells));
+		visited.set(selectedCell);
+		add(selectedCell);
+
+		// While active cell exist
+		while (numActive != 0) {
+			int index = select();
+			selectedCell = active[index];
+
+			//Edges to the unVisited neighbors of selectedCell
+			int numEdges = 0;
+			for (int k = 0; k < graph.slots; k++) {
+				int neigh = graph.target(selectedCell, k);
+				if (neigh >= 0 && !visited.get(neigh))
+					edges[numEdges++] = k;
+			}
 
+			if (numEdges > 0) {
+				int k = edges[randomCell.nextInt(numEdges)];
+				//remove the wall in between
+				graph.carve(selectedCell, k);
+				//add neighboring cell to visited set and active cells
+				int neigh = graph.target(selectedCell, k);
+				visited.set(neigh);
+				add(neigh);
+			}
+			else {
+				// if no unvisited neighboring cell exist, remove the selectedCell from active cells
+				remove(index);
 			}
 		}
-		return unVisited;
-	}// end of hexArrayList()
+	}// end of buildMaze()
+
 
 	/**
-	 * ******************************************************************************************
-	 * 1: Populate the unVisited ArrayList with all the Cell in the normal maze.
-	 * ******************************************************************************************
-	 * @param maze
-	 * @return unVisited ArrayList of Cell in normal maze
+	 * Pick an active cell according to the policy.
+	 * @return Index of the cell in active array.
 	 */
-	public ArrayList<Cell> normalArrayList(Maze maze) {
-		for (int i = 0; i < maze.sizeR; i++){
-			for (int j = 0; j < maze.sizeC; j++) {
+	int select() {
+		int p = policy;
+		if (p == MIXED)
+			p = randomCell.nextDouble() < threshold ? RANDOM : NEWEST;
+
+		if (p == NEWEST)
+			return tail - 1;
+		if (p == OLDEST)
+			return head;
+		// removed cells are at most half of the array, so this takes less than two tries on average
+		int index;
+		do {
+			index = head + randomCell.nextInt(tail - head);
+		} while (active[index] < 0);
+		return index;
+	}// end of select()
 
-				selectedCell = maze.map[i][j];
-				unVisited.add(selectedCell);
-
-			}
-		}
-
-		return unVisited;
-	}// end of normalArrayList() 
 
 	/**
-	 * buildMaze method generate the required maze using Growing Tree technique.
-	 * ******************************************************************************************
-	 * 1: Select a random cell from unVisited Cell ArrayList.
-	 * 2: Add selectedCell to visited set.
-	 * 3: Remove the selectedCell from unvisited ArrayList 
-	 * 4: While cell exist in a visited set   
-	 * 4.1   Pick a random cell from visited set 
-	 * 4.2   For all the possible neighbors of a selectedCell
-	 *    4.2.1 if neighboring Cell is unVisited 
-	 *      4.2.1.1 Remove the wall in between
-	 *      4.2.1.2 Add neighboring cell to visited set
-	 *      4.2.1.3 Remove the neighboring cell from unvisited ArrayList
-	 * 4.3   If no unVisited neighbor exist 
-	 *    4.3.1 Remove the selectedCell from visited set
-	 * ******************************************************************************************
-	 * @param maze
+	 * Add a cell as the newest active cell.
+	 * @param cell Node of the cell.
 	 */
-	public void buildMaze(Maze maze)	{
-		//select random cell from unVisited Cells
-		selectedCell = unVisited.get(randomCell.nextInt(unVisited.size()));
-		//Add selectedCell to visited set
-		visited.add(selectedCell);
-		//remove selectedCell from unVisited ArrayList
-		unVisited.remove(selectedCell);
-
-		// While cell exist in a visited set
-		while(visited.size() != 0) {
-
-			boolean flag = true;
-
-			int index = new Random().nextInt(visited.size());
-			//Pick a random Cell from visited set using getRandomCell() 
-			selectedCell = getRandomCell(index); 
-
-			//For all the neighbor of selectedCell
-			for(int i = 0; i < maze.NUM_DIR; i++ ) {
-				//if neighboring Cell exist	
-				if(selectedCell.neigh[i] != null ) {
-					//if neighboring cell is unvisited
-					if(unVisited.contains(selectedCell.neigh[i])) {
-						//remove the wall in between
-						selectedCell.wall[i].present = false;
-						//add neighboring cell to visited set
-						visited.add(selectedCell.neigh[i]); 
-						//remove the neighboring cell from unvisited ArrayList
-						unVisited.remove(selectedCell.neigh[i]);
-						flag = false;
-						break;
-					}
-				}
-			}
-			// if no unvisited neighboring cell exist 
-			if(flag) {
-				//remove the selectedCell from visited set
-				visited.remove(selectedCell);
+	void add(int cell) {
+		active[tail++] = cell;
+		numActive++;
+	}// end of add()
 
-			}
-		}
-	}// end of buildMaze()
 
 	/**
-	 * This method is used to pick a Cell from visited set.
-	 * ******************************************************************************************
-	 * @param index
-	 * @return Cell at ith index from visited set
+	 * Remove an active cell, skipping removed cells at both ends and compacting the array when half of it is removed.
+	 * @param index Index of the cell in active array.
 	 */
-	public Cell getRandomCell(int index){
-		Iterator<Cell> iter = visited.iterator();
-		for (int i = 0; i < index; i++) {
-			iter.next();
+	void remove(int index) {
+		active[index] = -1;
+		numActive--;
+		while (head < tail && active[head] < 0)
+			head++;
+		while (tail > head && active[tail - 1] < 0)
+			tail--;
+		if (2 * numActive < tail - head) {
+			int j = head;
+			for (int i = head; i < tail; i++)
+				if (active[i] >= 0)
+					active[j++] = active[i];
+			tail = j;
 		}
-		return iter.next();
-
-	}//end of getRandomCell()
+	}// end of remove()
 
 }
@@ -0,0 +1,118 @@
+package mazeGenerator;
+
+import java.util.SplittableRandom;
+
+import maze.Maze;
+import maze.MazeGraph;
+import maze.UnionFind;
+
+
+/**
+ * This class is part of mazeGenerator package which implements MazeGenerator interface.
+ * And is used to implement Randomized Kruskal Algorithm.
+ * @author Zaid & Swapnil
+ *
+ * Every interior wall is an int edge id, cell * 3 + dir for the walls on direction 0 to 2 of a cell.
+ * The edges are shuffled in place and each one joining two different sets of the union-find is carved.
+ * The sets are those of the nodes of the graph of the maze, so the two ends of a tunnel are in the same set from the start,
+ * and a wall between them has no edge. Memory is the edge array and the union-find, i.e. at most four ints per cell.
+ */
+
+public class KruskalGenerator implements MazeGenerator {
+
+	/** randomCell object to shuffle the edges*/
+	SplittableRandom randomCell  = new SplittableRandom();
+	/** graph of the maze*/
+	MazeGraph graph;
+	/** interior walls of the maze as edge ids*/
+	int edges[] = new int[0];
+	/** sets of the nodes joined so far*/
+	UnionFind sets = new UnionFind();
+
+
+	@Override
+	public void setSeed(long seed) {
+		randomCell = new SplittableRandom(seed);
+	} // end of setSeed()
+
+
+	/* (non-Javadoc)
+	 * @see mazeGenerator.MazeGenerator#generateMaze(maze.Maze)
+	 *  /**
+	 *
+	 * ******************************************************************************************
+	 * 1: Enumerate the interior walls between different nodes as edge ids.
+	 * 2: Shuffle them with Fisher-Yates.
+	 * 3: Call buildMaze() method to generate maze.
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void generateMaze(Maze maze) {
+		graph = maze.graph();
+		int numCells = graph.numCells;
+		if (numCells > Integer.MAX_VALUE / 3)
+			throw new IllegalArgumentException("Maze of " + numCells + " cells has too many walls for int edge ids.");
+
+		// count the interior walls first, to size the edge array once
+		int numEdges = 0;
+		for (int cell = 0; cell < numCells; cell++)
+			for (int dir = 0; dir < 3; dir++)
+				if (isEdge(cell, dir))
+					numEdges++;
+		if (edges.length != numEdges)
+			edges = new int[numEdges];
+		int k = 0;
+		for (int cell = 0; cell < numCells; cell++)
+			for (int dir = 0; dir < 3; dir++)
+				if (isEdge(cell, dir))
+					edges[k++] = cell * 3 + dir;
+
+		for (int i = numEdges - 1; i > 0; i--) {
+			int j = randomCell.nextInt(i + 1);
+			int temp = edges[i];
+			edges[i] = edges[j];
+			edges[j] = temp;
+		}
+
+		sets.reset(numCells);
+
+		//Start of buildMaze method
+		buildMaze(maze);
+	} // end of generateMaze()
+
+
+	/**
+	 * buildMaze method generate the required maze using Kruskal technique.
+	 * ******************************************************************************************
+	 * 1: For the shuffled edges, until all the cells are in one set
+	 * 1.1   if the cells on both sides of the wall are in different sets
+	 *    1.1.1 Remove the wall in between
+	 *    1.1.2 Join their sets
+	 * ******************************************************************************************
+	 * @param maze
+	 */
+	public void buildMaze(Maze maze) {
+		// a spanning tree has numNodes - 1 passages
+		int numJoins = 0;
+		for (int i = 0; i < edges.length && numJoins < graph.numNodes - 1; i++) {
+			int cell = edges[i] / 3;
+			int dir = edges[i] - 3 * cell;
+			if (sets.union(graph.node(cell), graph.node(maze.neighbor(cell, dir)))) {
+				maze.carve(cell, dir);
+				numJoins++;
+			}
+		}
+	} // end of buildMaze()
+
+
+	/**
+	 * @param cell Index of a cell.
+	 * @param dir Direction from 0 to 2.
+	 * @return True if the wall on direction dir of the cell is between two different nodes.
+	 */
+	boolean isEdge(int cell, int dir) {
+		int neigh = graph.maze.neighbor(cell, dir);
+		return neigh >= 0 && graph.node(neigh) != graph.node(cell);
+	} // end of isEdge()
+
+} // end of class KruskalGenerator
@@ -1,6 +1,7 @@
 package mazeGenerator;
 
 import maze.Maze;
+import maze.MazeGraph;
 
 /**
  * Interface of a maze generator.
@@ -16,4 +17,24 @@ public interface MazeGenerator
 	 * @param maze The reference of Maze object to generate. 
 	 */
 	public void generateMaze(Maze maze);
+
+	/**
+	 * Function that fixes the seed of the random choices, so that the same seed generates the same maze.
+	 * @param seed Seed of the random number generator.
+	 */
+	public default void setSeed(long seed) {
+	}
+
+	/**
+	 * Function that generates a tunnel maze with a generator working on rows or tiles, which knows nothing of tunnels.
+	 * The generator fills plainMaze() of the graph of the maze, and carveSpanningTree() keeps the passages of it
+	 * which join nodes not yet connected. This costs a second maze of the same size, in bits, and a pass over every wall.
+	 * @param maze The reference of the tunnel Maze object to generate.
+	 */
+	public default void generateAroundTunnels(Maze maze) {
+		MazeGraph graph = maze.graph();
+		Maze plain = graph.plainMaze();
+		generateMaze(plain);
+		graph.carveSpanningTree(plain);
+	}
 } // end of interface mazeGenerator
\ No newline at end of file
@@ -1,118 +1,81 @@
 package mazeGenerator;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Random;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
 
-import maze.Cell;
 import maze.Maze;
+import maze.MazeGraph;
 
 
 /**
  * This class is part of mazeGenerator package which implements MazeGenerator interface.
- * And is used to implement Modified Prims Algorithm. 
+ * And is used to implement Modified Prims Algorithm.
  * @author Zaid & Swapnil
  *
+ * The tree grows over the nodes of the MazeGraph. The frontier is an array with the position of each node in it,
+ * so that a random frontier node is picked, added or removed in constant time, and generation is linear.
  */
 
 public class ModifiedPrimsGenerator implements MazeGenerator {
 
-	Cell selectedCell;
-	Cell frontierCell;
-	/** unVisited ArrayList is use to store unVisited Cell*/
-	ArrayList<Cell> unVisited = new ArrayList<Cell>();
-	/** Set of Visited Cell*/
-	Set<Cell> visited = new HashSet<Cell>();
-	/** Set of frontier Cell*/
-	Set<Cell> frontier = new HashSet<Cell>();
+	/** graph of the maze*/
+	MazeGraph graph;
 	/** randomCell object to select randomCell in a maze*/
-	Random randomCell  = new Random();
+	SplittableRandom randomCell  = new SplittableRandom();
+	/** Set of Visited Cell*/
+	BitSet visited = new BitSet();
+	/** frontier Cell in frontier[0] to frontier[frontierSize - 1], in no particular order*/
+	int frontier[] = new int[0];
+	int frontierSize = 0;
+	/** position[cell] is the index of the cell in frontier array, -1 if it is not a frontier Cell*/
+	int position[] = new int[0];
+
+	@Override
+	public void setSeed(long seed) {
+		randomCell = new SplittableRandom(seed);
+	} // end of setSeed()
+
 
 	/* (non-Javadoc)
 	 * @see mazeGenerator.MazeGenerator#generateMaze(maze.Maze)
-	 *  /** 
-	 * 
+	 *  /**
+	 *
 	 * ******************************************************************************************
-	 * 1: Populate the unVisited ArrayList depending upon the maze type using Switch statement.
+	 * 1: Reset the visited set and the frontier, reusing their arrays for mazes of the same size,
+	 *    and mark the cells which are not nodes as visited.
 	 * 2: Call buildMaze() method to generate maze.
 	 * ******************************************************************************************
 	 */
 	@Override
 	public void generateMaze(Maze maze) {
-		// TODO Auto-generated method stub
-
-		switch (maze.type) {
-		//Maze type normal
-		case 0:
-			normalArrayList(maze);	
-			break;
-			//Maze type hex
-		case 2:
-			hexArrayList(maze);
-			break;
-		default:
-			System.err.println("Invalid Maze Type.");		
+		graph = maze.graph();
+		int numCells = graph.numCells;
+		if (position.length != numCells) {
+			frontier = new int[numCells];
+			position = new int[numCells];
 		}
+		Arrays.fill(position, -1);
+		frontierSize = 0;
+		visited.clear();
+		graph.markNonNodes(visited);
 
 		//Start of buildMaze method
-		buildMaze(maze);	
-
+		buildMaze(maze);
 
 	} // end of generateMaze()
 
-	/**
-	 * ******************************************************************************************
-	 * 1: Populate the unVisited ArrayList with all the Cell in the hex maze.
-	 * ******************************************************************************************
-	 * @param maze
-	 * @return unVisited ArrayList of Cell in hex maze
-	 */
-	public ArrayList<Cell> hexArrayList(Maze maze) {
-		for (int i = 0; i < maze.sizeR; i++){
-			for (int j = (i + 1) / 2; j < maze.sizeC + (i + 1) / 2; j++) {
-
-				selectedCell = maze.map[i][j];
-				unVisited.add(selectedCell);
-
-			}
-		}
-		return unVisited;
-	}// end of hexArrayList()
-
-
-	/**
-	 * ******************************************************************************************
-	 * 1: Populate the unVisited ArrayList with all the Cell in the normal maze.
-	 * ******************************************************************************************
-	 * @param maze
-	 * @return unVisited ArrayList of Cell in normal maze
-	 */
-	public ArrayList<Cell> normalArrayList(Maze maze) {
-		for (int i = 0; i < maze.sizeR; i++){
-			for (int j = 0; j < maze.sizeC; j++) {
-
-				selectedCell = maze.map[i][j];
-				unVisited.add(selectedCell);
-
-			}
-		}
-
-		return unVisited;
-	}// end of normalArrayList() 
-
 
 	/**
 	 * buildMaze method generate the required maze using Modified Prims technique.
 	 * ******************************************************************************************
-	 * 1: Select a random cell from unVisited Cell ArrayList.
+	 * 1: Select a random cell of the maze.
 	 * 2: Add selectedCell to visited set.
-	 * 3: Call addNeighboringCell() for selectedCell 
-	 * 4: While unvisited cell exist in a frontier set  
-	 * 4.1   Select randomCell from frontier set 
+	 * 3: Call addNeighboringCell() for selectedCell
+	 * 4: While unvisited cell exist in a frontier set
+	 * 4.1   Select randomCell from frontier set
 	 * 4.2   For all the possible neighbors of a frontier cell
-	 *    4.2.1 if neighboring Cell exists 
+	 *    4.2.1 if neighboring Cell exists
 	 *    4.2.2 if neighboring cell is adjacent to frontier cell
 	 *      4.2.2.1 Remove the wall in between
 	 *      4.2.2.2 Remove the frontier cell from frontier set
@@ -121,83 +84,71 @@ public class ModifiedPrimsGenerator implements MazeGenerator {
 	 * ******************************************************************************************
 	 * @param maze
 	 */
-	public void buildMaze(Maze maze)	{
+	public void buildMaze(Maze maze) {
 
-		//Select a random Cell from unVisited ArrayList
-		selectedCell = unVisited.get(randomCell.nextInt(unVisited.size()));
+		//Select a random Cell of the maze
+		int selectedCell = graph.node(randomCell.nextInt(graph.numCells));
 		// add selectedCell to visited set
-		visited.add(selectedCell); 
+		visited.set(selectedCell);
 		//add all the neighbors of selectedCell to frontier set using addNeighboring()
-		addNeighboringCell(selectedCell); 
+		addNeighboringCell(selectedCell);
 
-		// unless no cell exist in frontier set 
-		while(frontier.size() != 0) {
-			//Pick a random frontier cell from frontier set using getRandomCell() 
-			int index = new Random().nextInt(frontier.size());
-			frontierCell = getRandomCell(index); 
+		// unless no cell exist in frontier set
+		while (frontierSize != 0) {
+			//Pick a random frontier cell from frontier set
+			int frontierCell = frontier[randomCell.nextInt(frontierSize)];
 
 			//For all the neighboring cells
-			for(int i = 0; i < maze.NUM_DIR; i++ ) {
-				//if neighboring cell exist 
-				if(frontierCell.neigh[i] != null ) {
-					//if neighboring cell is adjacent to frontierCell
-					if(visited.contains(frontierCell.neigh[i])) {
-						//remove the wall in between
-						frontierCell.wall[i].present = false;
-						//remove the frontierCell from frontier set
-						frontier.remove(frontierCell);
-						//add frontierCell to visited set
-						visited.add(frontierCell); 
-						//add all the neighbors of frontierCell to frontier set using addNeighboring()
-						addNeighboringCell(frontierCell);
-						break;
-					}
+			for (int k = 0; k < graph.slots; k++) {
+				int neigh = graph.target(frontierCell, k);
+				//if neighboring cell exists and is visited
+				if (neigh >= 0 && visited.get(neigh)) {
+					//remove the wall in between
+					graph.carve(frontierCell, k);
+					//remove the frontierCell from frontier set
+					removeFrontierCell(frontierCell);
+					//add frontierCell to visited set
+					visited.set(frontierCell);
+					//add all the neighbors of frontierCell to frontier set using addNeighboring()
+					addNeighboringCell(frontierCell);
+					break;
 				}
 			}
 		}
 	}// end of buildMaze()
 
 
-	/**
-	 * This method is used to pick a frontierCell from frontier set.
-	 * ******************************************************************************************
-	 * @param index
-	 * @return frontierCell at ith index from frontier set
-	 */
-	public Cell getRandomCell(int index){
-		Iterator<Cell> iter = frontier.iterator();
-		for (int i = 0; i < index; i++) {
-			iter.next();
-		}
-		return iter.next();
-
-	}//end of getRandomCell()
-
-
 	/**
 	 * This method is used to add all the neighboring cell to frontier set.
 	 * ******************************************************************************************
-	 * 1: If neighboring Cell exist and neighboring cell not in the visited set 
-	 *   1.1: Add neighboring cell to frontier set
-	 * ******************************************************************************************  
-	 * @param cell
+	 * 1: If neighboring cell exists and is not in the visited set or frontier set
+	 *   1.1: Add neighboring cell at the end of frontier array
+	 * ******************************************************************************************
+	 * @param cell Node of the cell.
 	 */
-	public void addNeighboringCell(Cell cell) {
-		for(int i=0;i<6;i++) {
-			if(cell.neigh[i] != null && (!visited.contains(cell.neigh[i]))) {	
-				frontier.add(cell.neigh[i]); 		
-
+	public void addNeighboringCell(int cell) {
+		for (int k = 0; k < graph.slots; k++) {
+			int neigh = graph.target(cell, k);
+			if (neigh >= 0 && !visited.get(neigh) && position[neigh] < 0) {
+				position[neigh] = frontierSize;
+				frontier[frontierSize++] = neigh;
 			}
 		}
 	}// end of addNeighboringCell()
 
 
+	/**
+	 * This method is used to remove a cell from frontier set.
+	 * ******************************************************************************************
+	 * 1: Move the last frontier cell to the position of the removed cell.
+	 * ******************************************************************************************
+	 * @param cell Node of the cell.
+	 */
+	public void removeFrontierCell(int cell) {
+		int last = frontier[--frontierSize];
+		frontier[position[cell]] = last;
+		position[last] = position[cell];
+		position[cell] = -1;
+	}// end of removeFrontierCell()
 
 } // end of class ModifiedPrimsGenerator
-
-
-
-
-
-
-
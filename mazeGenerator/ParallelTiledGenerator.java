@@ -0,0 +1,221 @@
+package mazeGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import maze.HexMaze;
+import maze.Maze;
+import maze.UnionFind;
+import maze.NormalMaze;
+
+
+/**
+ * This class is part of mazeGenerator package which implements MazeGenerator interface.
+ * And is used to generate a large maze in parallel, as a grid of tiles.
+ * @author Zaid & Swapnil
+ *
+ * Every tile is generated as a maze of its own by any MazeGenerator, on the threads of a ForkJoinPool,
+ * and copied into the maze. The tiles are then joined by a random spanning tree of the tile grid,
+ * removing one wall on the boundary of the two tiles of every edge of the tree, so the maze is perfect.
+ * Every tile gets a seed drawn in order from the seed of this generator, and the tree is drawn on the calling thread,
+ * so the maze only depends on the seed, whatever the number of threads.
+ */
+
+public class ParallelTiledGenerator implements MazeGenerator {
+
+	/** factory of the generator of the tiles*/
+	Supplier<MazeGenerator> factory;
+	/** number of rows and columns of cells of a tile, except on the north and east edges of the maze*/
+	public int tileSize = 256;
+	/** number of threads*/
+	public int parallelism = Runtime.getRuntime().availableProcessors();
+	/** randomCell object to draw the seeds of the tiles and the spanning tree of the tiles*/
+	SplittableRandom randomCell  = new SplittableRandom();
+	/** generator of the tiles of each thread, reused from tile to tile*/
+	ThreadLocal<MazeGenerator> tileGen;
+	/** sets of the tiles joined so far*/
+	UnionFind sets = new UnionFind();
+
+
+	public ParallelTiledGenerator() {
+		this(RecursiveBacktrackerGenerator::new);
+	} // end of ParallelTiledGenerator()
+
+
+	/**
+	 * @param factory Factory of the generator of the tiles, called once per thread.
+	 */
+	public ParallelTiledGenerator(Supplier<MazeGenerator> factory) {
+		this.factory = factory;
+		tileGen = ThreadLocal.withInitial(factory);
+	} // end of ParallelTiledGenerator()
+
+
+	/**
+	 * @param factory Factory of the generator of the tiles, called once per thread.
+	 * @param tileSize Number of rows and columns of cells of a tile.
+	 * @param parallelism Number of threads.
+	 */
+	public ParallelTiledGenerator(Supplier<MazeGenerator> factory, int tileSize, int parallelism) {
+		this(factory);
+		this.tileSize = tileSize;
+		this.parallelism = parallelism;
+	} // end of ParallelTiledGenerator()
+
+
+	@Override
+	public void setSeed(long seed) {
+		randomCell = new SplittableRandom(seed);
+	} // end of setSeed()
+
+
+	/* (non-Javadoc)
+	 * @see mazeGenerator.MazeGenerator#generateMaze(maze.Maze)
+	 *  /**
+	 *
+	 * ******************************************************************************************
+	 * 1: Draw the seeds of the tiles.
+	 * 2: Generate the tiles in parallel, each one into its part of the maze.
+	 * 3: Call joinTiles() to join the tiles by a random spanning tree.
+	 * For a tunnel maze, call generateAroundTunnels() instead.
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void generateMaze(Maze maze) {
+		if (maze.type == Maze.TUNNEL) {
+			generateAroundTunnels(maze);
+			return;
+		}
+		if (tileSize < 1 || parallelism < 1)
+			throw new IllegalArgumentException("Invalid tile size " + tileSize + " or parallelism " + parallelism + ".");
+
+		// hex rows alternate, so tiles start on even rows to have the neighbors of the maze
+		int tileRows = maze.type == Maze.HEX ? (tileSize + 1) & ~1 : tileSize;
+		int tileCols = tileSize;
+		int numTileR = (maze.sizeR + tileRows - 1) / tileRows;
+		int numTileC = (maze.sizeC + tileCols - 1) / tileCols;
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int tr = 0; tr < numTileR; tr++) {
+			for (int tc = 0; tc < numTileC; tc++) {
+				int r0 = tr * tileRows;
+				int c0 = tc * tileCols;
+				int rows = Math.min(tileRows, maze.sizeR - r0);
+				int cols = Math.min(tileCols, maze.sizeC - c0);
+				long seed = randomCell.nextLong();
+				tasks.add(() -> {
+					generateTile(maze, r0, c0, rows, cols, seed);
+					return null;
+				});
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invokeAll(tasks).forEach(task -> {
+				try {
+					task.get();
+				} catch (Exception e) {
+					throw new IllegalStateException("Generation of a tile failed.", e);
+				}
+			});
+		} finally {
+			pool.shutdown();
+		}
+
+		joinTiles(maze, numTileR, numTileC, tileRows, tileCols);
+	} // end of generateMaze()
+
+
+	/**
+	 * Generate a tile as a maze of its own and copy its passages into the maze.
+	 * @param maze
+	 * @param r0 Row of the south-west cell of the tile.
+	 * @param c0 Column of the south-west cell of the tile, in hexagon columns for a hex maze.
+	 * @param rows Number of rows of the tile.
+	 * @param cols Number of columns of the tile.
+	 * @param seed Seed of the tile generator.
+	 */
+	void generateTile(Maze maze, int r0, int c0, int rows, int cols, long seed) {
+		Maze tile = maze.type == Maze.HEX ? new HexMaze() : new NormalMaze();
+		tile.storage = Maze.STORE_PACKED;
+		tile.isVisu = false;
+		tile.initMaze(rows, cols, 0, 0, rows - 1, cols - 1, new ArrayList<int[]>());
+		MazeGenerator gen = tileGen.get();
+		gen.setSeed(seed);
+		gen.generateMaze(tile);
+
+		// cell indices of both mazes are row * number of columns + hexagon column,
+		// and walls on the boundary of the tile are never removed
+		for (int r = 0; r < rows; r++) {
+			long first = (long) (r0 + r) * maze.sizeC + c0;
+			for (int c = 0; c < cols; c++) {
+				int cell = r * cols + c;
+				for (int dir = 0; dir < 3; dir++) {
+					if (tile.isOpen(cell, dir))
+						maze.carveConcurrent(first + c, dir);
+				}
+			}
+		}
+	} // end of generateTile()
+
+
+	/**
+	 * joinTiles method joins the tiles using Kruskal technique on the grid of tiles.
+	 * ******************************************************************************************
+	 * 1: Shuffle the edges between a tile and its east and north tiles.
+	 * 2: For every edge joining two tiles in different sets
+	 * 2.1   Remove a random wall on the boundary of the two tiles
+	 * 2.2   Join their sets
+	 * ******************************************************************************************
+	 * @param maze
+	 * @param numTileR Number of rows of tiles.
+	 * @param numTileC Number of columns of tiles.
+	 * @param tileRows Number of rows of cells of a tile.
+	 * @param tileCols Number of columns of cells of a tile.
+	 */
+	void joinTiles(Maze maze, int numTileR, int numTileC, int tileRows, int tileCols) {
+		int numTiles = numTileR * numTileC;
+		// edge tile * 2 to the east tile, tile * 2 + 1 to the north tile
+		int edges[] = new int[2 * numTiles];
+		int numEdges = 0;
+		for (int tile = 0; tile < numTiles; tile++) {
+			if (tile % numTileC + 1 < numTileC)
+				edges[numEdges++] = 2 * tile;
+			if (tile / numTileC + 1 < numTileR)
+				edges[numEdges++] = 2 * tile + 1;
+		}
+		for (int i = numEdges - 1; i > 0; i--) {
+			int j = randomCell.nextInt(i + 1);
+			int temp = edges[i];
+			edges[i] = edges[j];
+			edges[j] = temp;
+		}
+
+		sets.reset(numTiles);
+
+		for (int i = 0; i < numEdges; i++) {
+			int tile = edges[i] / 2;
+			boolean east = edges[i] % 2 == 0;
+			if (!sets.union(tile, east ? tile + 1 : tile + numTileC))
+				continue;
+			int r0 = tile / numTileC * tileRows;
+			int c0 = tile % numTileC * tileCols;
+			if (east) {
+				// a cell of the east column of the tile
+				int r = r0 + randomCell.nextInt(Math.min(tileRows, maze.sizeR - r0));
+				maze.carve((long) r * maze.sizeC + c0 + tileCols - 1, Maze.EAST);
+			}
+			else {
+				// a cell of the north row of the tile, an odd row for a hex maze, whose northwest neighbor is in the same column
+				int c = c0 + randomCell.nextInt(Math.min(tileCols, maze.sizeC - c0));
+				maze.carve((long) (r0 + tileRows - 1) * maze.sizeC + c, Maze.NORTH);
+			}
+		}
+	} // end of joinTiles()
+
+} // end of class ParallelTiledGenerator
@@ -0,0 +1,107 @@
+package mazeGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import maze.Maze;
+
+
+/**
+ * Base of the generators deciding every row of the maze on its own, which can then run in parallel.
+ * @author Zaid & Swapnil
+ *
+ * The rows are split in blocks of blockRows rows generated on the threads of a ForkJoinPool,
+ * each block with a SplittableRandom split in order from the one of the generator,
+ * so the maze only depends on the seed, whatever the number of threads.
+ * The walls are removed straight in the maze with carveConcurrent().
+ */
+
+public abstract class RowParallelGenerator implements MazeGenerator {
+
+	/** number of rows of a block*/
+	public int blockRows = 64;
+	/** number of threads*/
+	public int parallelism = Runtime.getRuntime().availableProcessors();
+	/** randomCell object to split the random number generators of the blocks*/
+	SplittableRandom randomCell  = new SplittableRandom();
+
+
+	@Override
+	public void setSeed(long seed) {
+		randomCell = new SplittableRandom(seed);
+	} // end of setSeed()
+
+
+	/* (non-Javadoc)
+	 * @see mazeGenerator.MazeGenerator#generateMaze(maze.Maze)
+	 *  /**
+	 *
+	 * ******************************************************************************************
+	 * 1: Draw the seeds of the blocks of rows.
+	 * 2: Generate the blocks in parallel, calling carveRow() for each row.
+	 * For a tunnel maze, call generateAroundTunnels() instead.
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void generateMaze(Maze maze) {
+		if (maze.type == Maze.TUNNEL) {
+			generateAroundTunnels(maze);
+			return;
+		}
+		if (blockRows < 1 || parallelism < 1)
+			throw new IllegalArgumentException("Invalid block size " + blockRows + " or parallelism " + parallelism + ".");
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int r0 = 0; r0 < maze.sizeR; r0 += blockRows) {
+			int first = r0;
+			int last = Math.min(maze.sizeR, r0 + blockRows);
+			SplittableRandom random = randomCell.split();
+			tasks.add(() -> {
+				for (int r = first; r < last; r++)
+					carveRow(maze, r, random);
+				return null;
+			});
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invokeAll(tasks).forEach(task -> {
+				try {
+					task.get();
+				} catch (Exception e) {
+					throw new IllegalStateException("Generation of a block of rows failed.", e);
+				}
+			});
+		} finally {
+			pool.shutdown();
+		}
+	} // end of generateMaze()
+
+
+	/**
+	 * Remove the walls of a row, with carveConcurrent() as other rows are carved at the same time.
+	 * @param maze
+	 * @param r Index of the row.
+	 * @param random Random number generator of the block of the row.
+	 */
+	protected abstract void carveRow(Maze maze, int r, SplittableRandom random);
+
+
+	/**
+	 * Direction to the next row kept by the hex variants: northeast, or northwest from the east cell of an odd row.
+	 * @param maze
+	 * @param r Index of the row, below the last one.
+	 * @param c Hexagon column of the cell.
+	 * @return NORTH for a normal maze, otherwise NORTHEAST or NORTHWEST.
+	 */
+	protected static int upDir(Maze maze, int r, int c) {
+		if (maze.type != Maze.HEX)
+			return Maze.NORTH;
+		// the northeast neighbor is in column c from an even row, c + 1 from an odd row
+		return r % 2 == 1 && c == maze.sizeC - 1 ? Maze.NORTHWEST : Maze.NORTHEAST;
+	} // end of upDir()
+
+} // end of class RowParallelGenerator
@@ -0,0 +1,21 @@
+package mazeGenerator;
+
+import java.util.BitSet;
+
+/**
+ * Receiver of a maze generated one row at a time, e.g. a file writer, a renderer or a checksum,
+ * for mazes too large to be held in memory.
+ *
+ * @author Zaid & Swapnil
+ */
+public interface RowSink
+{
+	/**
+	 * Function called for every row, from row 0 upward, as soon as the row is finished.
+	 * @param r Index of the row.
+	 * @param open Bit 3 * c + dir is set if the wall on direction dir (EAST, NORTHEAST, or NORTHWEST which is NORTH)
+	 * of the cell in column c is removed. Columns of hex rows are hexagon columns, from 0 to cols - 1.
+	 * The BitSet is reused for the next row.
+	 */
+	public void acceptRow(long r, BitSet open);
+} // end of interface RowSink
@@ -0,0 +1,56 @@
+package mazeGenerator;
+
+import java.util.SplittableRandom;
+
+import maze.Maze;
+
+
+/**
+ * This class is part of mazeGenerator package which extends RowParallelGenerator.
+ * And is used to implement Sidewinder Algorithm.
+ * @author Zaid & Swapnil
+ *
+ * Every row is cut in runs of cells joined by their east walls, and every run is joined to the next row
+ * through the north wall of one of its cells, so every row is generated on its own.
+ * A hex run goes up through a northeast wall (northwest on the east edge of odd rows).
+ */
+
+public class SidewinderGenerator extends RowParallelGenerator {
+
+	/**
+	 * carveRow method generate a row using Sidewinder technique.
+	 * ******************************************************************************************
+	 * 1: If it is the last row, remove all the east walls.
+	 * 2: Otherwise, for every cell of the row
+	 * 2.1   Add the cell to the current run
+	 * 2.2   If it is on the east edge or at random
+	 *    2.2.1 Remove the wall to the next row of a random cell of the run
+	 *    2.2.2 Start a new run
+	 * 2.3   Otherwise remove the east wall
+	 * ******************************************************************************************
+	 * @param maze
+	 * @param r Index of the row.
+	 * @param random Random number generator of the block of the row.
+	 */
+	@Override
+	protected void carveRow(Maze maze, int r, SplittableRandom random) {
+		long first = (long) r * maze.sizeC;
+		if (r == maze.sizeR - 1) {
+			for (int c = 0; c + 1 < maze.sizeC; c++)
+				maze.carveConcurrent(first + c, Maze.EAST);
+			return;
+		}
+
+		int runStart = 0;
+		for (int c = 0; c < maze.sizeC; c++) {
+			if (c == maze.sizeC - 1 || random.nextBoolean()) {
+				int up = runStart + random.nextInt(c - runStart + 1);
+				maze.carveConcurrent(first + up, upDir(maze, r, up));
+				runStart = c + 1;
+			}
+			else
+				maze.carveConcurrent(first + c, Maze.EAST);
+		}
+	} // end of carveRow()
+
+} // end of class SidewinderGenerator
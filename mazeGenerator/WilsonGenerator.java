@@ -0,0 +1,169 @@
+package mazeGenerator;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import maze.Maze;
+import maze.MazeGraph;
+
+
+/**
+ * This class is part of mazeGenerator package which implements MazeGenerator interface.
+ * And is used to implement Wilson's Algorithm, which generates every perfect maze with the same probability.
+ * @author Zaid & Swapnil
+ *
+ * The loop-erased random walk keeps only the last edge slot of the MazeGraph taken from each node in a byte array:
+ * walking over a node again overwrites its edge, which erases the loop, and the path is then
+ * carved by following the edges from the start of the walk.
+ * With the hybrid option, an Aldous-Broder random walk first grows the tree to switchFraction of the cells,
+ * so that the first walks of Wilson's algorithm do not wander a large maze looking for a small tree.
+ * Each algorithm alone is uniform but the hybrid is not exactly (the counts of the 192 mazes of 3 x 3 are visibly uneven),
+ * so it is off by default and should stay off for statistics.
+ */
+
+public class WilsonGenerator implements MazeGenerator {
+
+	/** whether to start with Aldous-Broder*/
+	public boolean hybrid = false;
+	/** with hybrid option, fraction of the cells visited by Aldous-Broder before switching to Wilson*/
+	public double switchFraction = 1.0 / 3;
+	/** randomCell object to pick the directions of the walks*/
+	SplittableRandom randomCell  = new SplittableRandom();
+	/** Set of Cell in the maze tree*/
+	BitSet inTree = new BitSet();
+	/** number of Cell in the maze tree*/
+	int numInTree;
+	/** graph of the maze*/
+	MazeGraph graph;
+	/** walk[cell] is the edge slot of the last step of the walk from the cell*/
+	byte walk[] = new byte[0];
+	/** node the edge last drawn by randomEdge() leads to*/
+	int edgeTarget;
+
+
+	public WilsonGenerator() {
+	} // end of WilsonGenerator()
+
+
+	/**
+	 * @param hybrid Whether to start with Aldous-Broder.
+	 * @param switchFraction Fraction of the cells visited by Aldous-Broder before switching to Wilson.
+	 */
+	public WilsonGenerator(boolean hybrid, double switchFraction) {
+		this.hybrid = hybrid;
+		this.switchFraction = switchFraction;
+	} // end of WilsonGenerator()
+
+
+	@Override
+	public void setSeed(long seed) {
+		randomCell = new SplittableRandom(seed);
+	} // end of setSeed()
+
+
+	/* (non-Javadoc)
+	 * @see mazeGenerator.MazeGenerator#generateMaze(maze.Maze)
+	 *  /**
+	 *
+	 * ******************************************************************************************
+	 * 1: Reset the tree and the walk directions, reusing their array for mazes of the same size,
+	 *    and put the cells which are not nodes in the tree.
+	 * 2: Call buildMaze() method to generate maze.
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void generateMaze(Maze maze) {
+		graph = maze.graph();
+		int numCells = graph.numCells;
+		// edges are only read on the current walk, so they need no reset
+		if (walk.length != numCells)
+			walk = new byte[numCells];
+		inTree.clear();
+		graph.markNonNodes(inTree);
+		numInTree = 0;
+
+		//Start of buildMaze method
+		buildMaze(maze);
+	} // end of generateMaze()
+
+
+	/**
+	 * buildMaze method generate the required maze using Wilson's technique.
+	 * ******************************************************************************************
+	 * 1: Add a random cell of the maze to the tree.
+	 * 2: If hybrid, walk at random from it until switchFraction of the cells are in the tree
+	 * 2.1   Remove the wall to every cell entered for the first time and add the cell to the tree
+	 * 3: For every cell not in the tree
+	 * 3.1   Walk at random until the tree is reached, recording the last edge taken from every cell
+	 * 3.2   Follow the recorded edges from the cell, removing the walls and adding the cells to the tree
+	 * ******************************************************************************************
+	 * @param maze
+	 */
+	public void buildMaze(Maze maze) {
+		int numCells = graph.numCells;
+		int cell = graph.node(randomCell.nextInt(numCells));
+		addToTree(cell);
+
+		// Aldous-Broder
+		if (hybrid) {
+			long target = (long) (switchFraction * graph.numNodes);
+			while (numInTree < target) {
+				int k = randomEdge(cell);
+				int next = edgeTarget;
+				if (!inTree.get(next)) {
+					graph.carve(cell, k);
+					addToTree(next);
+				}
+				cell = next;
+			}
+		}
+
+		// Wilson
+		int start = inTree.nextClearBit(0);
+		while (start < numCells) {
+			// loop-erased random walk, a loop is erased by overwriting the edge of the cell it started from
+			cell = start;
+			while (!inTree.get(cell)) {
+				int k = randomEdge(cell);
+				walk[cell] = (byte) k;
+				cell = edgeTarget;
+			}
+
+			// carve the walk
+			cell = start;
+			while (!inTree.get(cell)) {
+				int k = walk[cell];
+				graph.carve(cell, k);
+				addToTree(cell);
+				cell = graph.target(cell, k);
+			}
+			start = inTree.nextClearBit(start + 1);
+		}
+	} // end of buildMaze()
+
+
+	/**
+	 * @param cell Node of the cell.
+	 * @return Edge slot of a random neighbor of the cell, the neighbor being left in edgeTarget.
+	 */
+	int randomEdge(int cell) {
+		// drawing again until the slot leads somewhere keeps the choice uniform among the neighbors
+		int k;
+		do {
+			k = randomCell.nextInt(graph.slots);
+			edgeTarget = graph.target(cell, k);
+		} while (edgeTarget < 0);
+		return k;
+	} // end of randomEdge()
+
+
+	/**
+	 * Add a cell to the tree.
+	 * @param cell Node of the cell.
+	 */
+	void addToTree(int cell) {
+		inTree.set(cell);
+		numInTree++;
+	} // end of addToTree()
+
+} // end of class WilsonGenerator
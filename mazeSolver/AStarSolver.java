@@ -0,0 +1,385 @@
+package mazeSolver;
+
+
+import java.util.Arrays;
+import maze.Maze;
+
+
+/**
+ * This class is part of mazeSolver package which implements MazeSolver interface.
+ * And is used to implement A* Search Algorithm, which finds a shortest path exploring the cells closest to exit first.
+ * @author Zaid & Swapnil
+ *
+ * The open cells are kept in a binary heap of cell indices ordered by g + h, with the position of every cell
+ * in the heap to lower its key in place. h is a lower bound of the distance to exit: Manhattan distance
+ * for a normal maze, hex distance max(|dr|, |dc|, |dr - dc|) in map coordinates for a hex maze.
+ * A tunnel of length 1 can be shorter than both, so with tunnels h is the least of the direct distance and
+ * of the distance to a tunnel end plus the bound from that end, the bounds of the tunnel ends being
+ * shortest paths over the tunnel ends only, where tunnel ends are joined by their distance and by their tunnel.
+ * Only the ends whose bound is less than their direct distance can lower h, and h only looks at the
+ * MAX_PORTALS of them with the least bounds, the next bound being a floor for the others: computing the bounds
+ * is O(ends^2), done again only when the maze, its tunnelStamp or exit change, and h is O(MAX_PORTALS) per cell
+ * whatever the number of tunnels. If no end can lower it, h is the direct distance alone.
+ * Above MAX_BOUND_ENDS ends the bounds are not computed, and the floor is the least direct distance of an end:
+ * h is then weak, A* explores about as many cells as BreadthFirstSolver and is slower than it.
+ * The arrays are allocated once for the size of the maze; a cell belongs to the current call only if
+ * its stamp is the current run, so nothing has to be cleared between calls.
+ */
+
+public class AStarSolver implements MazeSolver {
+	/** greatest number of tunnel ends looked at by heuristic()*/
+	final static int MAX_PORTALS = 256;
+	/** greatest number of tunnel ends whose bounds are computed*/
+	final static int MAX_BOUND_ENDS = 4096;
+
+	/** solved is use to keep track solver status*/
+	boolean solved = false;
+	/** run number of the current call*/
+	int run = 0;
+	/** seen[cell] is run if the cell has a g score in this run*/
+	int seen[] = new int[0];
+	/** closed[cell] is run if the cell has been explored in this run*/
+	int closed[] = new int[0];
+	/** gScore[cell] is the length of the best path found from entrance to the cell*/
+	int gScore[] = new int[0];
+	/** fScore[cell] is gScore[cell] plus the heuristic of the cell*/
+	int fScore[] = new int[0];
+	/** parent[cell] is the cell it was reached from, -1 for entrance*/
+	int parent[] = new int[0];
+	/** heap of the open cells, heapPos[cell] is the position of the cell in it*/
+	int heap[] = new int[0];
+	int heapPos[] = new int[0];
+	int heapSize = 0;
+	/** row, column and bound to exit of the tunnel ends, the first numPortals of them by increasing bound*/
+	int portalR[] = new int[0];
+	int portalC[] = new int[0];
+	int portalBound[] = new int[0];
+	int numPortals = 0;
+	/** lower bound of the length of a path to exit through the tunnel ends not looked at*/
+	int portalFloor = Integer.MAX_VALUE;
+	/** maze, tunnel stamp and exit cell the bounds of the tunnel ends were computed for*/
+	Maze boundMaze = null;
+	int boundStamp = 0;
+	int boundExit = -1;
+	/** exit coordinates*/
+	int exitR;
+	int exitC;
+	/** solution path from entrance to exit, empty if not solved*/
+	int path[] = new int[0];
+	/** length of the solution path, -1 if not solved*/
+	int pathLength = -1;
+	/** cellsVisited is use to keep track of all cells being visited*/
+	int cellsVisited = 0;
+
+
+	/* (non-Javadoc)
+	 * @see mazeSolver.MazeSolver#solveMaze(maze.Maze)
+	 *
+	 * ******************************************************************************************
+	 * 1: Start a new run, and compute the bounds of the tunnel ends if the tunnels or exit have changed.
+	 * 2: Put entrance cell in the heap.
+	 * 3: While the heap is not empty
+	 *    3.1: Take the cell of least g + h from the heap and close it
+	 *    3.2: If it is exit, stop
+	 *    3.3: For each neighbor with no wall in between and the tunnel end of the cell, not closed
+	 *       3.3.1: If it is reached for the first time or by a shorter path, set its parent and g score
+	 *              and put it in the heap or move it up
+	 * 4: If exit is closed, read the path back from exit through the parents and draw it
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void solveMaze(Maze maze) {
+		int numCells = maze.cellCount();
+		if (gScore.length != numCells) {
+			seen = new int[numCells];
+			closed = new int[numCells];
+			gScore = new int[numCells];
+			fScore = new int[numCells];
+			parent = new int[numCells];
+			heap = new int[numCells];
+			heapPos = new int[numCells];
+			run = 0;
+		}
+		if (++run == Integer.MAX_VALUE) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(closed, 0);
+			run = 1;
+		}
+		solved = false;
+		path = new int[0];
+		pathLength = -1;
+		cellsVisited = 0;
+		heapSize = 0;
+
+		int entranceCell = maze.cellIndex(maze.entrance.r, maze.entrance.c);
+		int exitCell = maze.cellIndex(maze.exit.r, maze.exit.c);
+		exitR = maze.exit.r;
+		exitC = maze.exit.c;
+		if (maze != boundMaze || maze.tunnelStamp != boundStamp || exitCell != boundExit) {
+			portalBounds(maze);
+			boundMaze = maze;
+			boundStamp = maze.tunnelStamp;
+			boundExit = exitCell;
+		}
+		relax(maze, entranceCell, -1, 0);
+
+		while (heapSize > 0) {
+			int cell = pop();
+			closed[cell] = run;
+			cellsVisited++;
+			if (maze.isVisu)
+				maze.drawFtPrt(cell);
+			if (cell == exitCell)
+				break;
+			int g = gScore[cell] + 1;
+			int end = maze.tunnelTarget(cell);
+			if (end >= 0)
+				relax(maze, end, cell, g);
+			for (int dir = 0; dir < Maze.NUM_DIR; dir++) {
+				int neigh = maze.neighbor(cell, dir);
+				if (neigh >= 0 && maze.isOpen(cell, dir))
+					relax(maze, neigh, cell, g);
+			}
+		}
+		if (closed[exitCell] != run)
+			return;
+
+		pathLength = gScore[exitCell];
+		int numPathCells = 0;
+		for (int cell = exitCell; cell >= 0; cell = parent[cell])
+			numPathCells++;
+		path = new int[numPathCells];
+		for (int cell = exitCell, i = numPathCells - 1; cell >= 0; cell = parent[cell], i--)
+			path[i] = cell;
+		if (!maze.isVisu) {
+			for (int i = 0; i < path.length; i++)
+				maze.drawFtPrt(path[i]);
+		}
+		solved = true;
+	} // end of solveMaze()
+
+
+	/**
+	 * Reach a cell with a path of length g, keeping the path if it is the first or the shortest found.
+	 * Closed cells are skipped, the heuristic being consistent their path is the shortest.
+	 * @param maze
+	 * @param cell Index of the cell.
+	 * @param from Parent of the cell, -1 for entrance.
+	 * @param g Length of the path.
+	 */
+	void relax(Maze maze, int cell, int from, int g) {
+		if (closed[cell] == run)
+			return;
+		if (seen[cell] != run) {
+			seen[cell] = run;
+			gScore[cell] = g;
+			fScore[cell] = g + heuristic(maze.type, maze.cellRow(cell), maze.cellCol(cell));
+			parent[cell] = from;
+			heap[heapSize] = cell;
+			heapPos[cell] = heapSize;
+			siftUp(heapSize++);
+		}
+		else if (g < gScore[cell]) {
+			fScore[cell] -= gScore[cell] - g;
+			gScore[cell] = g;
+			parent[cell] = from;
+			siftUp(heapPos[cell]);
+		}
+	} // end of relax()
+
+
+	/**
+	 * Compute the bound to exit of every tunnel end, by Dijkstra algorithm over the tunnel ends,
+	 * starting from their distance to exit, then keep the ends which can lower the heuristic and the floor of the others.
+	 * @param maze
+	 */
+	void portalBounds(Maze maze) {
+		int numEnds = maze.tunnelEndCount();
+		if (portalR.length != numEnds) {
+			portalR = new int[numEnds];
+			portalC = new int[numEnds];
+			portalBound = new int[numEnds];
+		}
+		for (int i = 0; i < numEnds; i++) {
+			long cell = maze.tunnelEnd(i);
+			portalR[i] = maze.cellRow(cell);
+			portalC[i] = maze.cellCol(cell);
+			portalBound[i] = distance(maze.type, portalR[i], portalC[i], exitR, exitC);
+		}
+		numPortals = 0;
+		portalFloor = Integer.MAX_VALUE;
+		if (numEnds > MAX_BOUND_ENDS) {
+			// a path through a tunnel leaves its last tunnel at an end no closer to exit than the closest one
+			for (int i = 0; i < numEnds; i++)
+				portalFloor = Math.min(portalFloor, portalBound[i]);
+			return;
+		}
+		// the settled ends are moved to the front
+		for (int settled = 0; settled < numEnds; settled++) {
+			int best = settled;
+			for (int i = settled + 1; i < numEnds; i++) {
+				if (portalBound[i] < portalBound[best])
+					best = i;
+			}
+			swapPortals(settled, best);
+			long end = maze.tunnelTarget(maze.cellIndexLong(portalR[settled], portalC[settled]));
+			for (int i = settled + 1; i < numEnds; i++) {
+				int bound = distance(maze.type, portalR[i], portalC[i], portalR[settled], portalC[settled]);
+				if (maze.cellIndexLong(portalR[i], portalC[i]) == end)
+					bound = Math.min(bound, 1);
+				portalBound[i] = Math.min(portalBound[i], bound + portalBound[settled]);
+			}
+		}
+		// ends in settled order, by increasing bound; an end no better than its distance to exit never lowers h
+		for (int i = 0; i < numEnds; i++) {
+			if (portalBound[i] >= distance(maze.type, portalR[i], portalC[i], exitR, exitC))
+				continue;
+			if (numPortals == MAX_PORTALS) {
+				portalFloor = portalBound[i];
+				break;
+			}
+			swapPortals(numPortals++, i);
+		}
+	} // end of portalBounds()
+
+
+	/**
+	 * Swap two tunnel ends.
+	 * @param i
+	 * @param j
+	 */
+	void swapPortals(int i, int j) {
+		int tmp = portalR[i];
+		portalR[i] = portalR[j];
+		portalR[j] = tmp;
+		tmp = portalC[i];
+		portalC[i] = portalC[j];
+		portalC[j] = tmp;
+		tmp = portalBound[i];
+		portalBound[i] = portalBound[j];
+		portalBound[j] = tmp;
+	} // end of swapPortals()
+
+
+	/**
+	 * @param type Maze type.
+	 * @param r Row of the cell.
+	 * @param c Column of the cell, as in map[r][c].
+	 * @return Lower bound of the length of a path from the cell to exit.
+	 */
+	int heuristic(int type, int r, int c) {
+		// no tunnel end can lower the direct distance
+		if (numPortals == 0 && portalFloor == Integer.MAX_VALUE)
+			return distance(type, r, c, exitR, exitC);
+		int h = Math.min(distance(type, r, c, exitR, exitC), portalFloor);
+		// the bounds increase, so the ends after a bound of h or more cannot lower it
+		for (int i = 0; i < numPortals && portalBound[i] < h; i++)
+			h = Math.min(h, distance(type, r, c, portalR[i], portalC[i]) + portalBound[i]);
+		return h;
+	} // end of heuristic()
+
+
+	/**
+	 * @param type Maze type.
+	 * @param r1 Row of the first cell.
+	 * @param c1 Column of the first cell, as in map[r][c].
+	 * @param r2 Row of the second cell.
+	 * @param c2 Column of the second cell, as in map[r][c].
+	 * @return Number of steps between the cells if no wall is in the way.
+	 */
+	static int distance(int type, int r1, int c1, int r2, int c2) {
+		int dr = r2 - r1;
+		int dc = c2 - c1;
+		// the hex neighbors are at (0, +-1), (1, 1), (1, 0), (-1, -1) and (-1, 0) in map coordinates
+		if (type == Maze.HEX)
+			return Math.max(Math.abs(dr - dc), Math.max(Math.abs(dr), Math.abs(dc)));
+		return Math.abs(dr) + Math.abs(dc);
+	} // end of distance()
+
+
+	/**
+	 * @param a Index of a cell.
+	 * @param b Index of a cell.
+	 * @return True if a comes before b in the heap: least f score first, then greatest g score.
+	 */
+	boolean before(int a, int b) {
+		if (fScore[a] != fScore[b])
+			return fScore[a] < fScore[b];
+		return gScore[a] > gScore[b];
+	} // end of before()
+
+
+	/**
+	 * Move up the cell at position i of the heap to its place.
+	 * @param i
+	 */
+	void siftUp(int i) {
+		int cell = heap[i];
+		while (i > 0) {
+			int up = (i - 1) >>> 1;
+			if (!before(cell, heap[up]))
+				break;
+			heap[i] = heap[up];
+			heapPos[heap[i]] = i;
+			i = up;
+		}
+		heap[i] = cell;
+		heapPos[cell] = i;
+	} // end of siftUp()
+
+
+	/**
+	 * Take the first cell out of the heap.
+	 * @return Index of the cell.
+	 */
+	int pop() {
+		int first = heap[0];
+		int cell = heap[--heapSize];
+		int i = 0;
+		while (true) {
+			int down = 2 * i + 1;
+			if (down >= heapSize)
+				break;
+			if (down + 1 < heapSize && before(heap[down + 1], heap[down]))
+				down++;
+			if (!before(heap[down], cell))
+				break;
+			heap[i] = heap[down];
+			heapPos[heap[i]] = i;
+			i = down;
+		}
+		heap[i] = cell;
+		heapPos[cell] = i;
+		return first;
+	} // end of pop()
+
+
+	@Override
+	public boolean isSolved() {
+		return solved;
+	} // end if isSolved()
+
+
+	@Override
+	public int cellsExplored() {
+		return cellsVisited;
+	} // end of cellsExplored()
+
+
+	/**
+	 * @return Number of steps of the solution path, -1 if the maze is not solved.
+	 */
+	public int pathLength() {
+		return pathLength;
+	} // end of pathLength()
+
+
+	/**
+	 * @return Cells of the solution path from entrance to exit, going through both ends of the tunnels taken,
+	 * empty if the maze is not solved.
+	 */
+	public int[] solutionPath() {
+		return path;
+	} // end of solutionPath()
+
+} // end of class AStarSolver
@@ -1,252 +1,229 @@
 package mazeSolver;
 
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
-import java.util.Stack;
-import maze.Cell;
+import java.util.Arrays;
 import maze.Maze;
 
 
 /**
  * This class is part of mazeSolver package which implements MazeSolver interface.
- * And is used to implement BiDirectional recursive backtracking Algorithm. 
+ * And is used to implement BiDirectional recursive backtracking Algorithm.
  * @author Zaid & Swapnil
  *
+ * Cells are handled by their index in the maze. visitedBy holds one bit per side for every cell,
+ * so a side knows in O(1) if it walks into a cell of the other side, the stacks are int arrays,
+ * and the solution path is read back from the meeting cell through the parent arrays.
+ * The cells visited by every side are kept in visiting order to draw the footprints as before,
+ * the entrance side first and then the exit side backward.
  */
 
 public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
+	/** sides of the search*/
+	final static int ENTRANCE = 0;
+	final static int EXIT = 1;
+
 	/** solved is use to keep track solver status*/
 	boolean solved = false;
-	Cell selectedCell;
-	/** unVisitedEntrance contains unvisited cell for entrance DFS*/
-	ArrayList<Cell> unVisitedEntrance = new ArrayList<Cell>();
-	/** unVisitedExit contains unvisited cell for exit DFS*/
-	ArrayList<Cell> unVisitedExit = new ArrayList<Cell>();
-	/** entranceHalfPath contains visited cell path for entrance DFS*/
-	ArrayList<Cell> entranceHalfPath = new ArrayList<Cell>();
-	/** exitHalfPath contains visited cell path for exit DFS*/
-	ArrayList<Cell> exitHalfPath = new ArrayList<Cell>();
-	/** fullPath contains path of visited cell from entrance to exit which is produced by merging entranceHalfPath and exitHalfPath*/
-	ArrayList<Cell> fullPath = new ArrayList<Cell>();
-	/** randomCell object to select randomCell in a maze*/
-	Random randomCell  = new Random();
-	/** entranceStack contains visited cell for entranceDFS*/
-	Stack<Cell> entranceStack = new Stack<Cell>();
-	/** exitStack contains visited cell for exitDFS*/
-	Stack<Cell> exitStack = new Stack<Cell>();
+	/** visitedBy[cell] has bit 1 << side set if the cell is visited by the side*/
+	byte visitedBy[] = new byte[0];
+	/** parent[side][cell] is the cell the side came from, -1 for entrance and exit*/
+	int parent[][] = new int[2][0];
+	/** stack[side] contains the cells to backtrack to, top[side] is its size*/
+	int stack[][] = new int[2][0];
+	int top[] = new int[2];
+	/** visited[side] contains the cells visited by the side, in visiting order*/
+	int visited[][] = new int[2][0];
+	/** numVisited[side] is the number of cells in visited[side]*/
+	int numVisited[] = new int[2];
+	/** current[side] is the current cell of the side, -1 once it has nothing left to visit*/
+	int current[] = new int[2];
+	/** solution path from entrance to exit, empty if not solved*/
+	int path[] = new int[0];
 	/** cellsVisited is use to keep track of all cells being visited*/
 	int cellsVisited = 0;
-	
-	/** To keep the track of meetingPoint entranceDFS and exitDFS */
-	boolean meetingPointFound = false;
-	
+
+	/** To keep the track of meetingPoint entranceDFS and exitDFS, -1 until found */
+	int meetingPoint = -1;
+
 	/* (non-Javadoc)
 	 * @see mazeSolver.MazeSolver#solveMaze(maze.Maze)
-	 *  
+	 *
 	 * ******************************************************************************************
-	 * 1: Populate the unVisited ArrayList depending upon the maze type using Switch statement.
-	 * 2: set entrance cell & add it to entranceHalfPath
-	 * 3: set exitCell & add it to exitHalfPath
-	 * 4: While meetingPoint not found
-	 * 	  4.1: Call depthFirstSearch for entrancehalfPath and assign value to entranceCell
-	 *    4.2: Call depthFirstSearch for exithalfPath and assign value to exitCell
-	 * 5: Reverse the exitHalfPath so that exitCell goes to end
-	 * 6: Call mergePath() for entranceHalfPath 
-	 * 7: Call mergePath() for exitHalfPath and assign returning value to lastCell
-	 * 8: if lastCell of fullPath is equal to mazeExit invoke isSolved() returning true
+	 * 1: Clear the visited bits of every cell.
+	 * 2: set entrance cell & add it to the entrance side
+	 * 3: set exitCell & add it to the exit side
+	 * 4: While meetingPoint not found and a side has cells left to visit
+	 * 	  4.1: Call depthFirstSearch for the entrance side
+	 *    4.2: Call depthFirstSearch for the exit side
+	 * 5: If meetingPoint is found
+	 *    5.1: Call mergePath() to draw the cells of the entrance side, then of the exit side backward
+	 *    5.2: Read the solution path from the parents of meetingPoint and set solved
 	 * ******************************************************************************************
 	 */
 	@Override
 	public void solveMaze(Maze maze) {
-		// TODO Auto-generated method stub
-		
-		switch (maze.type) {
-		//Maze type normal
-		case 0:
-			normalArrayList(maze);
-			break;
-		//Maze type tunnel
-		case 1:
-			normalArrayList(maze);
-			break;
-		//Maze type hex
-		case 2:
-			hexArrayList(maze);	
-			break;
-		default:
-			System.err.println("Invalid Maze Type.");	
+		int numCells = maze.cellCount();
+		if (visitedBy.length != numCells) {
+			visitedBy = new byte[numCells];
+			parent = new int[2][numCells];
+			visited = new int[2][numCells];
+			stack = new int[2][numCells];
+		}
+		else
+			Arrays.fill(visitedBy, (byte) 0);
+		solved = false;
+		path = new int[0];
+		cellsVisited = 0;
+		meetingPoint = -1;
+		numVisited[ENTRANCE] = numVisited[EXIT] = 0;
+		top[ENTRANCE] = top[EXIT] = 0;
+
+		//Set entranceCell to maze entrance & add it to the entrance side
+		current[ENTRANCE] = maze.cellIndex(maze.entrance.r, maze.entrance.c);
+		visit(ENTRANCE, current[ENTRANCE], -1);
+		//Set exitCell to maze exit & add it to the exit side
+		current[EXIT] = maze.cellIndex(maze.exit.r, maze.exit.c);
+		visit(EXIT, current[EXIT], -1);
+		if (current[ENTRANCE] == current[EXIT])
+			meetingPoint = current[EXIT];
+
+		// until meetingPoint not found, or both sides have visited all the cells they can reach
+		while (meetingPoint < 0 && (current[ENTRANCE] >= 0 || current[EXIT] >= 0)) {
+			depthFirstSearch(maze, ENTRANCE);
+			depthFirstSearch(maze, EXIT);
 		}
-		//Set entranceCell to maze entrance
-		Cell entranceCell = maze.entrance;
-		// Add entranceCell to entranceHalfPath
-		entranceHalfPath.add(entranceCell);
-		
-		//Set exitCell to maze exit
-		Cell exitCell =  maze.exit;
-		// Add exitCell to exitHalfPath
-		exitHalfPath.add(exitCell);
-			
-		// until meetingPoint not found
-		while(!meetingPointFound) {
-			
-			// Call depthFirstSearch() for entranceHalfPath and assign value to entranceCell
-			entranceCell = depthFirstSearch(entranceCell,maze,unVisitedEntrance,entranceStack,entranceHalfPath,exitHalfPath);
-			// Call depthFirstSearch() for exitHalfPath and assign value to exitCell
-			exitCell = depthFirstSearch(exitCell,maze,unVisitedExit,exitStack,exitHalfPath,entranceHalfPath);
+		if (meetingPoint < 0)
+			return;
+
+		mergePath(maze);
+		// solution path is the entrance side path to meetingPoint, then the exit side path from it
+		int length = 0;
+		for (int cell = meetingPoint; cell >= 0; cell = parent[ENTRANCE][cell])
+			length++;
+		for (int cell = parent[EXIT][meetingPoint]; cell >= 0; cell = parent[EXIT][cell])
+			length++;
+		path = new int[length];
+		int i = 0;
+		for (int cell = meetingPoint; cell >= 0; cell = parent[ENTRANCE][cell])
+			path[i++] = cell;
+		for (int a = 0, b = i - 1; a < b; a++, b--) {
+			int tmp = path[a];
+			path[a] = path[b];
+			path[b] = tmp;
 		}
-		// reverse the exitHalfPath so that exitCell goes to end
-		 Collections.reverse(exitHalfPath);
-		 // call mergePath for entranceHalfPath
-		 mergePath(maze,entranceHalfPath);
-		 // call mergePath for exitHalfPath and returning value to lastCell
-		 Cell lastCell = mergePath(maze,exitHalfPath);
-	 
-	// if lastCell of the fullPath is maze exit invoke isSolved() returning true	 
-	if(lastCell.equals(maze.exit))	{			
-	 solved = true; 
-	 isSolved();
-	}
-	
+		for (int cell = parent[EXIT][meetingPoint]; cell >= 0; cell = parent[EXIT][cell])
+			path[i++] = cell;
+		solved = true;
 	} // end of solveMaze()
 
 
 	@Override
 	public boolean isSolved() {
-		// TODO Auto-generated method stub
 		return solved;
 	} // end if isSolved()
 
 	@Override
 	public int cellsExplored() {
-		// TODO Auto-generated method stub
 		return cellsVisited;
 	} // end of cellsExplored()
-	
-	
-	
+
+
+	/**
+	 * @return Cells of the solution path from entrance to exit, going through both ends of the tunnels taken,
+	 * empty if the maze is not solved.
+	 */
+	public int[] solutionPath() {
+		return path;
+	} // end of solutionPath()
+
+
+
 	/**
 	 * ***************************************************************************************************
-	 * 1: For each neighbor of selected cell
-	 *   1.1: if neighbor exist && no wall in between && neighboring cell is not visited before
+	 * 1: For each neighbor of the current cell of the side
+	 *   1.1: if neighbor exist && no wall in between && neighboring cell is not visited before by the side
 	 *     1.1.1: Put selectedCell into stack
-	 *     1.1.2: Assign neighboring cell to selectedCell
-	 *     1.1.3: remove selectedCell from unVisited ArrayList
-	 *     1.1.4: Add selectedCell to entranceHalfPath or exitHalfPath ArrayList
-	 *     1.1.5: if selectedCell is a tunnel cell assign tunnel end to selectedCell 
-	 *       1.1.5.1: Add selectedCell to path ArrayList & remove selectedCell from unVisited ArrayList
-	 * 2: If meetingPoint found return true 
-	 * 3: If no unVisited neighbor cell exist 
-	 *   3.1: BackTrack to previously visited cell 
+	 *     1.1.2: Assign neighboring cell to selectedCell, with the current cell as parent
+	 *     1.1.3: Add selectedCell to the visited cells of the side
+	 *     1.1.4: if selectedCell is a tunnel cell assign tunnel end to selectedCell
+	 *       1.1.4.1: Add selectedCell to the visited cells of the side
+	 * 2: If selectedCell is visited by the other side, it is the meetingPoint
+	 * 3: If no unVisited neighbor cell exist
+	 *   3.1: BackTrack to previously visited cell, the side is done if the stack is empty
 	 * ***************************************************************************************************
-	 * @param selectedCell
 	 * @param maze
-	 * @param unVisitedCell ArrayList of unVisited Cell for entranceHalfPath or exitHalfPath
-	 * @param stack of previously visited cell for entranceHalfPath and exitHalfPath
-	 * @param path ArrayList of carved path cell for entrancehalfPath or exitHalfPath 
-	 * @param secondPath ArrayList of carved path cell for exitHalfPath or entrancehalfPath  
-	 * @return current visited cell of entranceHalfPath or exitHalfPath
+	 * @param side ENTRANCE or EXIT.
 	 */
-	public Cell depthFirstSearch(Cell selectedCell,Maze maze,ArrayList<Cell> unVisitedCell,Stack<Cell> stack,ArrayList<Cell> path,ArrayList<Cell> secondPath) {
-		
-			boolean flag = true;
-			// for all the neighboring cell
-			for(int i=0;i<maze.NUM_DIR;i++){
-				//Neighboring cell exists && no wall in between && neighboring cell is not visited before
-				if(selectedCell.neigh[i] != null && (!(selectedCell.wall[i].present)) && unVisitedCell.contains(selectedCell.neigh[i])){
-					// Push the selected cell into the stack
-					stack.push(selectedCell);
-					// assign neighboring cell to selectedCell
-					selectedCell = selectedCell.neigh[i];
-					// remove selectedCell from unVisited ArrayList
-					unVisitedCell.remove(selectedCell);
-					// Add selectedCell to path
-					path.add(selectedCell);
-					// if selectedCell is a tunnel cell
-					if(selectedCell.tunnelTo!=null){     
-						//Assign end of the tunnel to selectedCell
-						 selectedCell=selectedCell.tunnelTo;
-						 //Add selectedCell to path
-						 path.add(selectedCell);
-						 // remove selectedCell for unVisitedCell
-						 unVisitedCell.remove(selectedCell);
-					 }
-					flag = false;
-					break;
+	public void depthFirstSearch(Maze maze, int side) {
+		int selectedCell = current[side];
+		if (selectedCell < 0)
+			return;
+		int bit = 1 << side;
+
+		boolean flag = true;
+		// for all the neighboring cell
+		for (int dir = 0; dir < Maze.NUM_DIR; dir++) {
+			int neigh = maze.neighbor(selectedCell, dir);
+			//Neighboring cell exists && no wall in between && neighboring cell is not visited before
+			if (neigh >= 0 && maze.isOpen(selectedCell, dir) && (visitedBy[neigh] & bit) == 0) {
+				// Push the selected cell into the stack
+				stack[side][top[side]++] = selectedCell;
+				visit(side, neigh, selectedCell);
+				selectedCell = neigh;
+				// if selectedCell is a tunnel cell, assign end of the tunnel to selectedCell
+				int end = maze.tunnelTarget(selectedCell);
+				if (end >= 0) {
+					if ((visitedBy[end] & bit) == 0)
+						visit(side, end, selectedCell);
+					selectedCell = end;
 				}
+				flag = false;
+				break;
 			}
-			// if meetingPoint found return true
-			if(secondPath.contains(selectedCell)) {
-				meetingPointFound = true;
-			}
-			// if no unvisited neighboring cell exist
-			if(flag) {
-			// BackTrack to previously visited cell	
-			if(!(stack.isEmpty()))  {
-				selectedCell = stack.pop();
 		}
-			
-			}
-		return selectedCell;
+		// if selectedCell is visited by the other side, meetingPoint found
+		if ((visitedBy[selectedCell] & (bit ^ 3)) != 0)
+			meetingPoint = selectedCell;
+		// if no unvisited neighboring cell exist, backtrack to previously visited cell
+		if (flag)
+			selectedCell = top[side] > 0 ? stack[side][--top[side]] : -1;
+		current[side] = selectedCell;
 	} // end of depthFirstSearch()
-	
-	/**
-	 * **************************************************************************************************
-	 * 1: Populate the unVisitedEntrance & unVisitedExit ArrayList with all the Cell in the hex maze.
-	 * **************************************************************************************************
-	 * @param maze
-	 * @return unVisited ArrayList of Cell in hex maze
-	 */
-	public ArrayList<Cell> hexArrayList(Maze maze) {
-		for (int i = 0; i < maze.sizeR; i++){
-			for (int j = (i + 1) / 2; j < maze.sizeC + (i + 1) / 2; j++) {
-				selectedCell = maze.map[i][j];
-				unVisitedEntrance.add(selectedCell);	
-				unVisitedExit.add(selectedCell);
-			}
-			}
-		return unVisitedEntrance;
-	}// end of hexArrayList()
+
 
 	/**
-	 * **************************************************************************************************
-	 * 1: Populate the unVisitedEntrance & unVisitedExit ArrayList with all the Cell in the normal maze.
-	 * **************************************************************************************************
-	 * @param maze
-	 * @return unVisited ArrayList of Cell in normal maze
+	 * Add a cell to the visited cells of a side.
+	 * @param side ENTRANCE or EXIT.
+	 * @param cell Index of the cell.
+	 * @param from Parent of the cell, -1 for entrance and exit.
 	 */
-	public ArrayList<Cell> normalArrayList(Maze maze) {
-		for (int i = 0; i < maze.sizeR; i++){
-			for (int j = 0; j < maze.sizeC; j++) {
-				selectedCell = maze.map[i][j];
-				unVisitedEntrance.add(selectedCell);	
-				unVisitedExit.add(selectedCell);
-			}
-			}	
-		return unVisitedEntrance;
-	}// end of normalArrayList()
+	void visit(int side, int cell, int from) {
+		visitedBy[cell] |= 1 << side;
+		parent[side][cell] = from;
+		visited[side][numVisited[side]++] = cell;
+	} // end of visit()
+
 
     /**
      * **************************************************************************************************
-	 * 1: Merge the entranceHalfPath or exitHalfPath into fullPath.
+	 * 1: Draw the cells visited by the entrance side in visiting order.
+	 * 2: Draw the cells visited by the exit side backward, but those visited by the entrance side.
 	 * **************************************************************************************************
-     * @param maze 
-     * @param path pass entranceHalfPath or exitHalfPath to merge
-     * @return lastCell of the fullPath
+     * @param maze
      */
-    public Cell mergePath(Maze maze,ArrayList<Cell> path) {
-    	Cell cell = null;
-    	for(int i =  0; i<path.size();i++) {
-    		cell = path.get(i);
-    		if(!fullPath.contains(cell)) {
-    			fullPath.add(cell);
+    public void mergePath(Maze maze) {
+    	for (int i = 0; i < numVisited[ENTRANCE]; i++) {
+    		maze.drawFtPrt(visited[ENTRANCE][i]);
+    		// Keep the track of cells visited
+    		cellsVisited++;
+    	}
+    	for (int i = numVisited[EXIT] - 1; i >= 0; i--) {
+    		int cell = visited[EXIT][i];
+    		if ((visitedBy[cell] & (1 << ENTRANCE)) == 0) {
     			maze.drawFtPrt(cell);
-    			// Keep the track of cells visited
     			cellsVisited++;
     		}
     	}
-    	return cell;
     }// end of mergePath()
-    
+
 } // end of class BiDirectionalRecursiveBackTrackerSolver
@@ -0,0 +1,365 @@
+package mazeSolver;
+
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import maze.Maze;
+
+
+/**
+ * This class is part of mazeSolver package which implements MazeSolver interface.
+ * And is used to implement Breadth First Search Algorithm, which finds a shortest path.
+ * @author Zaid & Swapnil
+ *
+ * Cells are handled by their index in the maze, with an int array as queue and an int array of parents,
+ * both allocated once for the size of the maze. A tunnel is an edge between its two ends,
+ * of length 1 like a wall, or of length 0 if freeTunnels is set: the other end of the tunnel is then
+ * reached at the same distance and is put in the queue right after the cell, so the queue stays in distance order.
+ * With visualization on the footprints show the search, otherwise only the path found is drawn.
+ * A maze of more than Integer.MAX_VALUE cells is solved by solveMazeLong(), keeping for every cell
+ * the direction to its parent in 4 bits, in chunks of long words, and the queue in chunks allocated as it grows.
+ */
+
+public class BreadthFirstSolver implements MazeSolver {
+	/** parent codes of solveMazeLong(): not reached, reached from the neighbor in direction code - 1,
+	 * reached through the tunnel, entrance; the path is then rewritten with the same codes toward exit, ended by END*/
+	final static int NOT_REACHED = 0;
+	final static int THROUGH_TUNNEL = 7;
+	final static int ENTRANCE = 8;
+	final static int END = 9;
+	/** cells per chunk of parentCode, and longs per chunk of the queue of solveMazeLong()*/
+	final static int CODE_CHUNK_SHIFT = 24;
+	final static int QUEUE_CHUNK = 1 << 16;
+
+	/** tunnels are of length 0 if set, 1 otherwise*/
+	public boolean freeTunnels = false;
+	/** solved is use to keep track solver status*/
+	boolean solved = false;
+	/** parent[cell] is the cell it was reached from, -1 for entrance, -2 if not reached*/
+	int parent[] = new int[0];
+	/** queue of the cells to explore, each cell is put once*/
+	int queue[] = new int[0];
+	/** solution path from entrance to exit, empty if not solved*/
+	int path[] = new int[0];
+	/** length of the solution path, -1 if not solved*/
+	long pathLength = -1;
+	/** cellsVisited is use to keep track of all cells being visited*/
+	long cellsVisited = 0;
+	/** parent codes of solveMazeLong(), 16 cells per long*/
+	long parentCode[][] = new long[0][];
+	/** queue of solveMazeLong(), cells are taken from longHead in the first chunk and put at longTail in the last one*/
+	ArrayDeque<long[]> longQueue = new ArrayDeque<long[]>();
+	int longHead = 0;
+	int longTail = 0;
+
+
+	public BreadthFirstSolver() {
+	} // end of BreadthFirstSolver()
+
+
+	/**
+	 * @param freeTunnels Tunnels are of length 0 if true, 1 otherwise.
+	 */
+	public BreadthFirstSolver(boolean freeTunnels) {
+		this.freeTunnels = freeTunnels;
+	} // end of BreadthFirstSolver()
+
+
+	/* (non-Javadoc)
+	 * @see mazeSolver.MazeSolver#solveMaze(maze.Maze)
+	 *
+	 * ******************************************************************************************
+	 * 1: Mark every cell as not reached.
+	 * 2: Put entrance cell in the queue.
+	 * 3: While the queue is not empty and exit is not reached
+	 *    3.1: Take the first cell of the queue
+	 *    3.2: For each neighbor with no wall in between and the tunnel end of the cell, if not reached
+	 *       3.2.1: Set the cell as its parent and put it in the queue
+	 * 4: If exit is reached, read the path back from exit through the parents and draw it
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void solveMaze(Maze maze) {
+		if (maze.cellCountLong() > Integer.MAX_VALUE) {
+			solveMazeLong(maze);
+			return;
+		}
+		int numCells = maze.cellCount();
+		if (parent.length != numCells) {
+			parent = new int[numCells];
+			queue = new int[numCells];
+		}
+		Arrays.fill(parent, -2);
+		solved = false;
+		path = new int[0];
+		pathLength = -1;
+		cellsVisited = 0;
+
+		int entranceCell = maze.cellIndex(maze.entrance.r, maze.entrance.c);
+		int exitCell = maze.cellIndex(maze.exit.r, maze.exit.c);
+		int head = 0;
+		int tail = 0;
+		tail = reach(maze, entranceCell, -1, tail);
+
+		while (head < tail && parent[exitCell] == -2) {
+			int cell = queue[head++];
+			// with tunnels of length 1, the tunnel end is one more neighbor
+			int end = freeTunnels ? -1 : maze.tunnelTarget(cell);
+			if (end >= 0 && parent[end] == -2)
+				tail = reach(maze, end, cell, tail);
+			for (int dir = 0; dir < Maze.NUM_DIR; dir++) {
+				int neigh = maze.neighbor(cell, dir);
+				if (neigh >= 0 && parent[neigh] == -2 && maze.isOpen(cell, dir))
+					tail = reach(maze, neigh, cell, tail);
+			}
+		}
+		if (parent[exitCell] == -2)
+			return;
+
+		// read the path back from exit, counting the steps through tunnels only if they are not free
+		int numPathCells = 0;
+		pathLength = 0;
+		for (int cell = exitCell; cell >= 0; cell = parent[cell]) {
+			numPathCells++;
+			if (parent[cell] >= 0 && !(freeTunnels && maze.tunnelTarget(cell) == parent[cell]))
+				pathLength++;
+		}
+		path = new int[numPathCells];
+		for (int cell = exitCell, i = numPathCells - 1; cell >= 0; cell = parent[cell], i--)
+			path[i] = cell;
+		if (!maze.isVisu) {
+			for (int i = 0; i < path.length; i++)
+				maze.drawFtPrt(path[i]);
+		}
+		solved = true;
+	} // end of solveMaze()
+
+
+	/**
+	 * Set the parent of a cell reached for the first time and put it in the queue,
+	 * followed by its tunnel end if tunnels are free.
+	 * @param maze
+	 * @param cell Index of the cell.
+	 * @param from Parent of the cell, -1 for entrance.
+	 * @param tail Size of the queue.
+	 * @return Size of the queue with the cells added.
+	 */
+	int reach(Maze maze, int cell, int from, int tail) {
+		parent[cell] = from;
+		queue[tail++] = cell;
+		cellsVisited++;
+		if (maze.isVisu)
+			maze.drawFtPrt(cell);
+		if (freeTunnels) {
+			int end = maze.tunnelTarget(cell);
+			if (end >= 0 && parent[end] == -2) {
+				parent[end] = cell;
+				queue[tail++] = end;
+				cellsVisited++;
+				if (maze.isVisu)
+					maze.drawFtPrt(end);
+			}
+		}
+		return tail;
+	} // end of reach()
+
+
+	@Override
+	public boolean isSolved() {
+		return solved;
+	} // end if isSolved()
+
+
+	@Override
+	public int cellsExplored() {
+		return (int) Math.min(cellsVisited, Integer.MAX_VALUE);
+	} // end of cellsExplored()
+
+
+	@Override
+	public long cellsExploredLong() {
+		return cellsVisited;
+	} // end of cellsExploredLong()
+
+
+	/**
+	 * @return Number of steps of the solution path, a step through a tunnel counting 0 if tunnels are free,
+	 * -1 if the maze is not solved.
+	 */
+	public long pathLength() {
+		return pathLength;
+	} // end of pathLength()
+
+
+	/**
+	 * @return Cells of the solution path from entrance to exit, going through both ends of the tunnels taken,
+	 * empty if the maze is not solved or has been solved by solveMazeLong().
+	 */
+	public int[] solutionPath() {
+		return path;
+	} // end of solutionPath()
+
+
+	/**
+	 * Same as solveMaze() with long cell indices, for mazes of more than Integer.MAX_VALUE cells.
+	 *
+	 * ******************************************************************************************
+	 * 1: Clear the parent codes, allocating them for the size of the maze.
+	 * 2: Put entrance cell in the queue.
+	 * 3: While the queue is not empty and exit is not reached
+	 *    3.1: Take the first cell of the queue
+	 *    3.2: For each neighbor with no wall in between and the tunnel end of the cell, if not reached
+	 *       3.2.1: Set the direction to the cell as its code and put it in the queue
+	 * 4: If exit is reached, rewrite the codes of the path from exit back to entrance as directions toward exit,
+	 *    counting the steps, then draw the path from entrance
+	 * ******************************************************************************************
+	 * @param maze
+	 */
+	void solveMazeLong(Maze maze) {
+		long numCells = maze.cellCountLong();
+		int numChunks = (int) ((numCells + (1L << CODE_CHUNK_SHIFT) - 1) >>> CODE_CHUNK_SHIFT);
+		if (parentCode.length != numChunks)
+			parentCode = new long[numChunks][1 << (CODE_CHUNK_SHIFT - 4)];
+		else {
+			for (int i = 0; i < numChunks; i++)
+				Arrays.fill(parentCode[i], 0L);
+		}
+		longQueue.clear();
+		longHead = 0;
+		longTail = QUEUE_CHUNK;
+		solved = false;
+		path = new int[0];
+		pathLength = -1;
+		cellsVisited = 0;
+
+		long entranceCell = maze.cellIndexLong(maze.entrance.r, maze.entrance.c);
+		long exitCell = maze.cellIndexLong(maze.exit.r, maze.exit.c);
+		reachLong(maze, entranceCell, ENTRANCE);
+
+		while (!longQueue.isEmpty() && code(exitCell) == NOT_REACHED) {
+			long cell = poll();
+			// with tunnels of length 1, the tunnel end is one more neighbor
+			long end = freeTunnels ? -1 : maze.tunnelTarget(cell);
+			if (end >= 0 && code(end) == NOT_REACHED)
+				reachLong(maze, end, THROUGH_TUNNEL);
+			for (int dir = 0; dir < Maze.NUM_DIR; dir++) {
+				long neigh = maze.neighbor(cell, dir);
+				if (neigh >= 0 && code(neigh) == NOT_REACHED && maze.isOpen(cell, dir))
+					reachLong(maze, neigh, Maze.oppoDir[dir] + 1);
+			}
+		}
+		longQueue.clear();
+		if (code(exitCell) == NOT_REACHED)
+			return;
+
+		// turn the path around, counting the steps through tunnels only if they are not free
+		pathLength = 0;
+		long cell = exitCell;
+		int toward = END;
+		while (true) {
+			int back = code(cell);
+			setCode(cell, toward);
+			if (back == ENTRANCE)
+				break;
+			if (back == THROUGH_TUNNEL) {
+				toward = THROUGH_TUNNEL;
+				cell = maze.tunnelTarget(cell);
+				if (!freeTunnels)
+					pathLength++;
+			}
+			else {
+				toward = Maze.oppoDir[back - 1] + 1;
+				cell = maze.neighbor(cell, back - 1);
+				pathLength++;
+			}
+		}
+		if (!maze.isVisu) {
+			for (cell = entranceCell; ; ) {
+				maze.drawFtPrt(cell);
+				toward = code(cell);
+				if (toward == END)
+					break;
+				cell = toward == THROUGH_TUNNEL ? maze.tunnelTarget(cell) : maze.neighbor(cell, toward - 1);
+			}
+		}
+		solved = true;
+	} // end of solveMazeLong()
+
+
+	/**
+	 * Set the code of a cell reached for the first time and put it in the queue of solveMazeLong(),
+	 * followed by its tunnel end if tunnels are free.
+	 * @param maze
+	 * @param cell Index of the cell.
+	 * @param code How the cell is reached.
+	 */
+	void reachLong(Maze maze, long cell, int code) {
+		setCode(cell, code);
+		push(cell);
+		cellsVisited++;
+		if (maze.isVisu)
+			maze.drawFtPrt(cell);
+		if (freeTunnels) {
+			long end = maze.tunnelTarget(cell);
+			if (end >= 0 && code(end) == NOT_REACHED) {
+				setCode(end, THROUGH_TUNNEL);
+				push(end);
+				cellsVisited++;
+				if (maze.isVisu)
+					maze.drawFtPrt(end);
+			}
+		}
+	} // end of reachLong()
+
+
+	/**
+	 * Put a cell at the end of the queue of solveMazeLong(), adding a chunk if the last one is full.
+	 * @param cell Index of the cell.
+	 */
+	void push(long cell) {
+		if (longTail == QUEUE_CHUNK) {
+			longQueue.addLast(new long[QUEUE_CHUNK]);
+			longTail = 0;
+		}
+		longQueue.peekLast()[longTail++] = cell;
+	} // end of push()
+
+
+	/**
+	 * Take the first cell out of the queue of solveMazeLong(), dropping the first chunk once it is read.
+	 * @return Index of the cell.
+	 */
+	long poll() {
+		long cell = longQueue.peekFirst()[longHead++];
+		if (longHead == QUEUE_CHUNK || (longQueue.size() == 1 && longHead == longTail)) {
+			longQueue.pollFirst();
+			longHead = 0;
+			if (longQueue.isEmpty())
+				longTail = QUEUE_CHUNK;
+		}
+		return cell;
+	} // end of poll()
+
+
+	/**
+	 * @param cell Index of the cell.
+	 * @return Parent code of the cell.
+	 */
+	int code(long cell) {
+		long word = parentCode[(int) (cell >>> CODE_CHUNK_SHIFT)][(int) (cell >>> 4) & ((1 << (CODE_CHUNK_SHIFT - 4)) - 1)];
+		return (int) (word >>> ((cell & 15) << 2)) & 15;
+	} // end of code()
+
+
+	/**
+	 * @param cell Index of the cell.
+	 * @param code New parent code of the cell.
+	 */
+	void setCode(long cell, int code) {
+		long chunk[] = parentCode[(int) (cell >>> CODE_CHUNK_SHIFT)];
+		int i = (int) (cell >>> 4) & ((1 << (CODE_CHUNK_SHIFT - 4)) - 1);
+		int shift = (int) (cell & 15) << 2;
+		chunk[i] = (chunk[i] & ~(15L << shift)) | ((long) code << shift);
+	} // end of setCode()
+
+} // end of class BreadthFirstSolver
@@ -31,4 +31,13 @@ public interface MazeSolver
 	 * It is not required to be accurate and no marks are given (or lost) on it. 
 	 */
 	public abstract int cellsExplored();
+
+
+	/**
+	 * Same as cellsExplored(), for solvers able to explore more than Integer.MAX_VALUE cells.
+	 * @return The number of cells explored.
+	 */
+	public default long cellsExploredLong() {
+		return cellsExplored();
+	}
 } // end of interface mazeGenerator
@@ -0,0 +1,268 @@
+package mazeSolver;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import maze.Maze;
+
+
+/**
+ * This class is part of mazeSolver package which implements MazeSolver interface.
+ * And is used to implement BiDirectional recursive backtracking Algorithm with the two sides running at the same time.
+ * @author Zaid & Swapnil
+ *
+ * The entrance side runs on the calling thread and the exit side on a thread of its own, both as in
+ * BiDirectionalRecursiveBacktrackerSolver. The cells are claimed in an AtomicIntegerArray holding two bits
+ * per cell, one per side, set by compareAndSet(): the side claiming a cell already owned by the other side
+ * is the second one there, it sets meetingPoint and both sides stop.
+ * Every side only writes its own arrays, and the footprints are drawn on the calling thread once both sides are done.
+ */
+
+public class ParallelBiDirectionalSolver implements MazeSolver {
+	/** sides of the search*/
+	final static int ENTRANCE = 0;
+	final static int EXIT = 1;
+
+	/** solved is use to keep track solver status*/
+	boolean solved = false;
+	/** owner holds the bit 1 << side of cell at bit 2 * (cell % 16) + side of word cell / 16*/
+	AtomicIntegerArray owner = new AtomicIntegerArray(0);
+	/** parent[side][cell] is the cell the side came from, -1 for entrance and exit*/
+	int parent[][] = new int[2][0];
+	/** stack[side] contains the cells to backtrack to*/
+	int stack[][] = new int[2][0];
+	/** visited[side] contains the cells visited by the side, in visiting order*/
+	int visited[][] = new int[2][0];
+	/** numVisited[side] is the number of cells in visited[side]*/
+	int numVisited[] = new int[2];
+	/** solution path from entrance to exit, empty if not solved*/
+	int path[] = new int[0];
+	/** cellsVisited is use to keep track of all cells being visited*/
+	int cellsVisited = 0;
+
+	/** meetingPoint of entranceDFS and exitDFS, -1 until found, -2 if the search is stopped by a failure */
+	final AtomicInteger meetingPoint = new AtomicInteger(-1);
+
+
+	/* (non-Javadoc)
+	 * @see mazeSolver.MazeSolver#solveMaze(maze.Maze)
+	 *
+	 * ******************************************************************************************
+	 * 1: Clear the owners of every cell.
+	 * 2: Start the exit side on a new thread, and run the entrance side on this one.
+	 * 3: Wait for the exit side.
+	 * 4: If meetingPoint is found
+	 *    4.1: Call mergePath() to draw the cells of the entrance side, then of the exit side backward
+	 *    4.2: Read the solution path from the parents of meetingPoint and set solved
+	 * ******************************************************************************************
+	 */
+	@Override
+	public void solveMaze(Maze maze) {
+		int numCells = maze.cellCount();
+		int words = (numCells + 15) >>> 4;
+		if (parent[ENTRANCE].length != numCells) {
+			owner = new AtomicIntegerArray(words);
+			parent = new int[2][numCells];
+			stack = new int[2][numCells];
+			visited = new int[2][numCells];
+		}
+		else {
+			for (int i = 0; i < words; i++)
+				owner.set(i, 0);
+		}
+		solved = false;
+		path = new int[0];
+		cellsVisited = 0;
+		numVisited[ENTRANCE] = numVisited[EXIT] = 0;
+		meetingPoint.set(-1);
+
+		int entranceCell = maze.cellIndex(maze.entrance.r, maze.entrance.c);
+		int exitCell = maze.cellIndex(maze.exit.r, maze.exit.c);
+		Throwable failure[] = new Throwable[1];
+		Thread exitSide = new Thread(() -> {
+			try {
+				depthFirstSearch(maze, EXIT, exitCell);
+			} catch (Throwable e) {
+				failure[0] = e;
+				meetingPoint.compareAndSet(-1, -2);
+			}
+		}, "exit side");
+		exitSide.start();
+		try {
+			depthFirstSearch(maze, ENTRANCE, entranceCell);
+		} catch (RuntimeException | Error e) {
+			meetingPoint.compareAndSet(-1, -2);
+			throw e;
+		} finally {
+			boolean interrupted = false;
+			while (true) {
+				try {
+					exitSide.join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+		if (failure[0] != null)
+			throw new IllegalStateException("Search of the exit side failed.", failure[0]);
+		if (meetingPoint.get() < 0)
+			return;
+
+		mergePath(maze);
+		// solution path is the entrance side path to meetingPoint, then the exit side path from it
+		int meeting = meetingPoint.get();
+		int entranceLength = 0;
+		for (int cell = meeting; cell >= 0; cell = parent[ENTRANCE][cell])
+			entranceLength++;
+		int exitLength = 0;
+		for (int cell = parent[EXIT][meeting]; cell >= 0; cell = parent[EXIT][cell])
+			exitLength++;
+		path = new int[entranceLength + exitLength];
+		int i = entranceLength;
+		for (int cell = meeting; cell >= 0; cell = parent[ENTRANCE][cell])
+			path[--i] = cell;
+		i = entranceLength;
+		for (int cell = parent[EXIT][meeting]; cell >= 0; cell = parent[EXIT][cell])
+			path[i++] = cell;
+		solved = true;
+	} // end of solveMaze()
+
+
+	@Override
+	public boolean isSolved() {
+		return solved;
+	} // end if isSolved()
+
+
+	@Override
+	public int cellsExplored() {
+		return cellsVisited;
+	} // end of cellsExplored()
+
+
+	/**
+	 * @return Cells of the solution path from entrance to exit, going through both ends of the tunnels taken,
+	 * empty if the maze is not solved.
+	 */
+	public int[] solutionPath() {
+		return path;
+	} // end of solutionPath()
+
+
+	/**
+	 * ***************************************************************************************************
+	 * 1: Claim the start cell.
+	 * 2: While meetingPoint is not found
+	 *   2.1: For each neighbor of selected cell
+	 *     2.1.1: if neighbor exist && no wall in between && neighboring cell is not visited before by the side
+	 *       2.1.1.1: Put selectedCell into stack
+	 *       2.1.1.2: Claim the neighboring cell and assign it to selectedCell, stop if the other side owns it
+	 *       2.1.1.3: if selectedCell is a tunnel cell, claim the tunnel end and assign it to selectedCell
+	 *   2.2: If no unVisited neighbor cell exist
+	 *     2.2.1: BackTrack to previously visited cell, stop if the stack is empty
+	 * ***************************************************************************************************
+	 * @param maze
+	 * @param side ENTRANCE or EXIT.
+	 * @param start Entrance or exit cell.
+	 */
+	void depthFirstSearch(Maze maze, int side, int start) {
+		int top = 0;
+		int selectedCell = start;
+		if (claim(side, selectedCell, -1))
+			return;
+
+		while (meetingPoint.get() == -1) {
+			boolean flag = true;
+			// for all the neighboring cell
+			for (int dir = 0; dir < Maze.NUM_DIR; dir++) {
+				int neigh = maze.neighbor(selectedCell, dir);
+				//Neighboring cell exists && no wall in between && neighboring cell is not visited before
+				if (neigh >= 0 && maze.isOpen(selectedCell, dir) && !isVisited(side, neigh)) {
+					// Push the selected cell into the stack
+					stack[side][top++] = selectedCell;
+					if (claim(side, neigh, selectedCell))
+						return;
+					selectedCell = neigh;
+					// if selectedCell is a tunnel cell, assign end of the tunnel to selectedCell
+					int end = maze.tunnelTarget(selectedCell);
+					if (end >= 0) {
+						if (!isVisited(side, end) && claim(side, end, selectedCell))
+							return;
+						selectedCell = end;
+					}
+					flag = false;
+					break;
+				}
+			}
+			// if no unvisited neighboring cell exist, backtrack to previously visited cell
+			if (flag) {
+				if (top == 0)
+					return;
+				selectedCell = stack[side][--top];
+			}
+		}
+	} // end of depthFirstSearch()
+
+
+	/**
+	 * @param side ENTRANCE or EXIT.
+	 * @param cell Index of the cell.
+	 * @return True if the side has claimed the cell, only the side setting its bit.
+	 */
+	boolean isVisited(int side, int cell) {
+		return (owner.getPlain(cell >>> 4) & (1 << (((cell & 15) << 1) + side))) != 0;
+	} // end of isVisited()
+
+
+	/**
+	 * Add a cell to the visited cells of a side and set its bit in owner, meetingPoint if the other side owns it.
+	 * The parent is written before the bit, so it is seen by the other side once it sees the bit.
+	 * @param side ENTRANCE or EXIT.
+	 * @param cell Index of the cell.
+	 * @param from Parent of the cell, -1 for entrance and exit.
+	 * @return True if the other side owns the cell.
+	 */
+	boolean claim(int side, int cell, int from) {
+		parent[side][cell] = from;
+		visited[side][numVisited[side]++] = cell;
+		int i = cell >>> 4;
+		int shift = (cell & 15) << 1;
+		int bit = 1 << (shift + side);
+		int other = 1 << (shift + (side ^ 1));
+		int old;
+		do {
+			old = owner.get(i);
+		} while (!owner.compareAndSet(i, old, old | bit));
+		if ((old & other) == 0)
+			return false;
+		meetingPoint.compareAndSet(-1, cell);
+		return true;
+	} // end of claim()
+
+
+    /**
+     * **************************************************************************************************
+	 * 1: Draw the cells visited by the entrance side in visiting order.
+	 * 2: Draw the cells visited by the exit side backward, but those visited by the entrance side.
+	 * **************************************************************************************************
+     * @param maze
+     */
+    void mergePath(Maze maze) {
+    	for (int i = 0; i < numVisited[ENTRANCE]; i++) {
+    		maze.drawFtPrt(visited[ENTRANCE][i]);
+    		// Keep the track of cells visited
+    		cellsVisited++;
+    	}
+    	for (int i = numVisited[EXIT] - 1; i >= 0; i--) {
+    		int cell = visited[EXIT][i];
+    		if (!isVisited(ENTRANCE, cell)) {
+    			maze.drawFtPrt(cell);
+    			cellsVisited++;
+    		}
+    	}
+    }// end of mergePath()
+
+} // end of class ParallelBiDirectionalSolver
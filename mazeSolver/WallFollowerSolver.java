@@ -1,212 +1,166 @@
 package mazeSolver;
 
-import java.util.ArrayList;
-
-import maze.Cell;
+import java.util.Arrays;
 import maze.Maze;
 
 
 /**
  * This class is part of mazeSolver package which implements MazeSolver interface.
- * And is used to implement Wall Follower Solver Algorithm. 
+ * And is used to implement Wall Follower Solver Algorithm.
  * @author Zaid & Swapnil
  *
+ * The direction taken from a cell only depends on the direction it was entered with and on its open walls,
+ * so it is read from a table indexed by the heading and a 6 bit mask of the open walls, for both hands.
+ * Cells are handled by their index in the maze, with bitsets of the visited cells and of the visited
+ * (cell, heading) states: walking into a state again means the walk goes round in a loop for ever,
+ * which happens on imperfect and tunnel mazes, and the solver gives up.
+ * Nothing is allocated once the bitsets are sized for the maze.
  */
 public class WallFollowerSolver implements MazeSolver {
 
-	/** direction ArrayList is use to store all the possible directions*/
-	ArrayList<Integer> direction = new ArrayList<Integer>();
-	/** visitedCell ArrayList is use to store visitedCell*/
-	ArrayList<Cell> visitedCell = new ArrayList<Cell>();
+	/** hands to keep on the wall*/
+	public final static int LEFT = 0;
+	public final static int RIGHT = 1;
+
+	/** NEXT_DIR[hand][heading][open walls] is the direction to take, -1 if no wall is open.
+	 *  The left hand tries heading + 2 (the leftmost) first, then turns clockwise, the right hand the other way*/
+	final static byte NEXT_DIR[][][] = new byte[2][Maze.NUM_DIR][1 << Maze.NUM_DIR];
+	static {
+		for (int hand = 0; hand < 2; hand++)
+			for (int heading = 0; heading < Maze.NUM_DIR; heading++)
+				for (int mask = 0; mask < 1 << Maze.NUM_DIR; mask++) {
+					NEXT_DIR[hand][heading][mask] = -1;
+					for (int k = 0; k < Maze.NUM_DIR; k++) {
+						int dir = hand == LEFT ? heading + 2 - k : heading - 2 + k;
+						dir = (dir + 2 * Maze.NUM_DIR) % Maze.NUM_DIR;
+						if ((mask & (1 << dir)) != 0) {
+							NEXT_DIR[hand][heading][mask] = (byte) dir;
+							break;
+						}
+					}
+				}
+	}
+
+	/** hand kept on the wall*/
+	public int hand = LEFT;
+	/** visited cells, bit cell of the array*/
+	long visitedCell[] = new long[0];
+	/** visited states, bit cell * NUM_DIR + heading of the array*/
+	long visitedState[] = new long[0];
 	/** cellsVisited is use to keep track of all cells being visited*/
 	int cellsVisited = 0;
 	/** solved is use to keep track solver status*/
 	boolean solved = false;
 
 
+	public WallFollowerSolver() {
+	} // end of WallFollowerSolver()
+
+
+	/**
+	 * @param hand Hand kept on the wall, LEFT or RIGHT.
+	 */
+	public WallFollowerSolver(int hand) {
+		this.hand = hand;
+	} // end of WallFollowerSolver()
+
+
 	/* (non-Javadoc)
 	 * @see mazeSolver.MazeSolver#solveMaze(maze.Maze)
-	 *  
+	 *
 	 * ******************************************************************************************
-	 * 1: set entrance cell
+	 * 1: set entrance cell and initial heading
 	 * 2: set exitCell
-	 * 3: set initial direction
-	 * 4: while exitCell is not visited 
-	 * 	  4.1: for all the neighboring cell
-	 * 		   4.1.1 if(neighboring cell exists && no wall is present in between
-	 * 				 4.1.1.1 assign neighboring cell to selectedCell
-	 * 				 4.1.1.2 if(selectedCell is not being visited)
-	 * 						 4.1.1.2.1 add selectedCell to visited arrayList
-	 * 						 4.1.1.2.1 increase cellsVisited count by one
-	 * 				 4.1.1.3 if(selectedCell is a tunnel cell)
-	 * 				 		 4.1.1.3.1 Assign tunnel end to selectedCell
-	 * 						 4.1.1.3.2 increase cellsVisited count by one
-	 * 						 4.1.1.3.3 if(selectedCell is not visited add it to visited arrayList)
-	 * 	  4.2 invoke rotate()
-	 * 5: if(exitCell is visited call isSolved() returning true
+	 * 3: while exitCell is not reached
+	 * 	  3.1: if (cell, heading) has been visited, the walk is a loop: stop unsolved
+	 * 	  3.2: look up the next direction from the heading and the open walls of the cell
+	 * 	  3.3: if no wall is open stop unsolved
+	 * 	  3.4: move to the neighboring cell and draw it, adding it to visited cells
+	 * 	  3.5: if (selectedCell is a tunnel cell)
+	 * 		   3.5.1 move to the tunnel end and draw it, adding it to visited cells
+	 * 4: if exitCell is reached, set solved
 	 * ******************************************************************************************
 	 */
 	@Override
 	public void solveMaze(Maze maze) {
-		// TODO Auto-generated method stub
-		//Assign maze entrance to selectedCell
-		Cell selectedCell = maze.entrance;
-		cellsVisited++;
+		int numCells = maze.cellCount();
+		int words = (numCells + 63) >>> 6;
+		int stateWords = (int) (((long) numCells * Maze.NUM_DIR + 63) >>> 6);
+		if (visitedCell.length != words || visitedState.length != stateWords) {
+			visitedCell = new long[words];
+			visitedState = new long[stateWords];
+		}
+		else {
+			Arrays.fill(visitedCell, 0L);
+			Arrays.fill(visitedState, 0L);
+		}
+		solved = false;
+
+		//Assign maze entrance to selectedCell, heading northeast as the walk used to start with
+		int selectedCell = maze.cellIndex(maze.entrance.r, maze.entrance.c);
+		int heading = Maze.NORTHEAST;
+		cellsVisited = visit(selectedCell) ? 1 : 0;
 		//Assign maze exit to exitCell
-		Cell exitCell =  maze.exit;
-		//Assign initial direction to direction ArrayList
-		direction.add(maze.WEST); // West
-		direction.add(maze.NORTHWEST); // North/NorthWest
-		direction.add(maze.NORTHEAST); // NorthEast
-		direction.add(maze.EAST); // East
-		direction.add(maze.SOUTHEAST); // South/SouthEast	
-		direction.add(maze.SOUTHWEST); // SouthWest
-
-		// Until exitCell is visited 
-		while(selectedCell != exitCell) {
-			int j = 0;
-			// for all the neighbors 
-			for(int i = 0; i < direction.size();i++) {
-				// Neighboring cell exist && no wall is present in between
-				if(selectedCell.neigh[direction.get(i)]!= null && (!(selectedCell.wall[direction.get(i)].present))) {
-					//Assign Neighboring cell to selectedCell
-					selectedCell = selectedCell.neigh[direction.get(i)];
-					maze.drawFtPrt(selectedCell);
-					//if selectedCell is not visited before 
-					if(!visitedCell.contains(selectedCell)) {
-						//Add selectedCell to visitedCell ArrayList
-						visitedCell.add(selectedCell);
-						cellsVisited++;
-					}
-					// if selectedCell is a tunnel cell
-					if(selectedCell.tunnelTo!=null){   
-						// Assign end of the tunnel to selectedCell
-						selectedCell=selectedCell.tunnelTo;
-						maze.drawFtPrt(selectedCell);
-						cellsVisited++;
-						//if selectedCell is not visited before 
-						if(!visitedCell.contains(selectedCell)) {
-							//Add selectedCell to visitedCell ArrayList
-							visitedCell.add(selectedCell);
-						}
-					}
-					//Assign direction index of neighboring cell 
-					j = i;
-					break;
-				}		
+		int exitCell = maze.cellIndex(maze.exit.r, maze.exit.c);
+
+		// Until exitCell is reached
+		while (selectedCell != exitCell) {
+			long state = (long) selectedCell * Maze.NUM_DIR + heading;
+			if ((visitedState[(int) (state >>> 6)] & (1L << state)) != 0)
+				return;
+			visitedState[(int) (state >>> 6)] |= 1L << state;
+
+			int mask = 0;
+			for (int dir = 0; dir < Maze.NUM_DIR; dir++) {
+				if (maze.isOpen(selectedCell, dir))
+					mask |= 1 << dir;
+			}
+			int dir = NEXT_DIR[hand][heading][mask];
+			if (dir < 0)
+				return;
+
+			//Assign Neighboring cell to selectedCell
+			selectedCell = maze.neighbor(selectedCell, dir);
+			heading = dir;
+			maze.drawFtPrt(selectedCell);
+			if (visit(selectedCell))
+				cellsVisited++;
+			// if selectedCell is a tunnel cell, assign end of the tunnel to selectedCell
+			int end = maze.tunnelTarget(selectedCell);
+			if (end >= 0) {
+				selectedCell = end;
+				maze.drawFtPrt(selectedCell);
+				if (visit(selectedCell))
+					cellsVisited++;
 			}
-			//start of rotate method
-			rotate(j,maze);
-		}
-		// if exitCell is visited invoke isSolved Method returning true
-		if(selectedCell.equals(exitCell))	{			
-			solved = true; 
-			isSolved();
 		}
+		solved = true;
 	} // end of solveMaze()
 
 
+	/**
+	 * Add a cell to visited cells.
+	 * @param cell Index of the cell.
+	 * @return True if the cell had not been visited.
+	 */
+	boolean visit(int cell) {
+		long bit = 1L << cell;
+		if ((visitedCell[cell >>> 6] & bit) != 0)
+			return false;
+		visitedCell[cell >>> 6] |= bit;
+		return true;
+	} // end of visit()
+
+
 	@Override
 	public boolean isSolved() {
-		// TODO Auto-generated method stub
-
 		return solved;
-
 	} // end if isSolved()
 
 
 	@Override
 	public int cellsExplored() {
-		// TODO Auto-generated method stub
 		return cellsVisited;
 	} // end of cellsExplored()
 
-
-
-
-	/**
-	 * ******************************************************************************************
-	 * 1: Based on direction of neighboring cell re-populated direction ArrayList.
-	 * ******************************************************************************************
-	 * @param i direction index of neighboring Cell
-	 * @param maze
-	 */
-	public void rotate(int i,Maze maze) {
-		//if the direction of the neighboring cell is East re-populate direction ArrayList accordingly.
-		if(direction.get(i) == maze.EAST) {
-
-			direction.removeAll(direction);
-			direction.add(maze.NORTHWEST);
-			direction.add(maze.NORTHEAST);
-			direction.add(maze.EAST);
-			direction.add(maze.SOUTHEAST);
-			direction.add(maze.SOUTHWEST);	
-			direction.add(maze.WEST);
-			return;
-		}
-		//if the direction of the neighboring cell is SouthEast re-populate direction ArrayList accordingly.
-		else if(direction.get(i) == maze.SOUTHEAST ) {
-
-			direction.removeAll(direction);
-			direction.add(maze.NORTHEAST);
-			direction.add(maze.EAST);
-			direction.add(maze.SOUTHEAST);
-			direction.add(maze.SOUTHWEST);
-			direction.add(maze.WEST);	
-			direction.add(maze.NORTHWEST);
-			return;
-
-		}
-		//if the direction of the neighboring cell is SOUTHWEST re-populate direction ArrayList accordingly.
-		else if(direction.get(i) == maze.SOUTHWEST ) {
-
-			direction.removeAll(direction);
-			direction.add(maze.EAST);
-			direction.add(maze.SOUTHEAST);
-			direction.add(maze.SOUTHWEST);
-			direction.add(maze.WEST);	
-			direction.add(maze.NORTHWEST);
-			direction.add(maze.NORTHEAST);
-			return;
-		}
-		//if the direction of the neighboring cell is WEST re-populate direction ArrayList accordingly.
-		else if(direction.get(i) == maze.WEST ) {
-
-			direction.removeAll(direction);
-			direction.add(maze.SOUTHEAST);
-			direction.add(maze.SOUTHWEST);
-			direction.add(maze.WEST);	
-			direction.add(maze.NORTHWEST);
-			direction.add(maze.NORTHEAST);
-			direction.add(maze.EAST);
-			return;
-		}
-		//if the direction of the neighboring cell is NORTHWEST re-populate direction ArrayList accordingly.
-		else if(direction.get(i) == maze.NORTHWEST ) {
-
-			direction.removeAll(direction);	
-			direction.add(maze.SOUTHWEST);
-			direction.add(maze.WEST);	
-			direction.add(maze.NORTHWEST);
-			direction.add(maze.NORTHEAST);
-			direction.add(maze.EAST);
-			direction.add(maze.SOUTHEAST);
-			return;
-		}
-		//if the direction of the neighboring cell is NORTHEAST re-populate direction ArrayList accordingly.
-		else if(direction.get(i) == maze.NORTHEAST ) {
-
-			direction.removeAll(direction);
-			direction.add(maze.WEST);	
-			direction.add(maze.NORTHWEST);
-			direction.add(maze.NORTHEAST);
-			direction.add(maze.EAST);
-			direction.add(maze.SOUTHEAST);
-			direction.add(maze.SOUTHWEST);
-			return;
-		}
-	} // end of rotate()
-
-
-
 } // end of class WallFollowerSolver